@@ -3,11 +3,21 @@ package com.backend.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @ConfigurationProperties(prefix = "app")
 public class AppProperties {
 
     private Frontend frontend = new Frontend();
+    private Security security = new Security();
+    private RateLimit rateLimit = new RateLimit();
+    private Maintenance maintenance = new Maintenance();
+    private Mail mail = new Mail();
 
     public Frontend getFrontend() {
         return frontend;
@@ -17,9 +27,42 @@ public class AppProperties {
         this.frontend = frontend;
     }
 
+    public Security getSecurity() {
+        return security;
+    }
+
+    public void setSecurity(Security security) {
+        this.security = security;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    public Maintenance getMaintenance() {
+        return maintenance;
+    }
+
+    public void setMaintenance(Maintenance maintenance) {
+        this.maintenance = maintenance;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public void setMail(Mail mail) {
+        this.mail = mail;
+    }
+
     public static class Frontend {
         private String resetPasswordUrl;
         private String verifyEmailUrl;
+        private String documentUrl;
 
         public String getResetPasswordUrl() {
             return resetPasswordUrl;
@@ -36,5 +79,649 @@ public class AppProperties {
         public void setVerifyEmailUrl(String verifyEmailUrl) {
             this.verifyEmailUrl = verifyEmailUrl;
         }
+
+        public String getDocumentUrl() {
+            return documentUrl;
+        }
+
+        public void setDocumentUrl(String documentUrl) {
+            this.documentUrl = documentUrl;
+        }
+    }
+
+    public static class Security {
+        private PrincipalCache principalCache = new PrincipalCache();
+        private JwtCache jwtCache = new JwtCache();
+        private Revocation revocation = new Revocation();
+        private Password password = new Password();
+        private Availability availability = new Availability();
+
+        public PrincipalCache getPrincipalCache() {
+            return principalCache;
+        }
+
+        public void setPrincipalCache(PrincipalCache principalCache) {
+            this.principalCache = principalCache;
+        }
+
+        public JwtCache getJwtCache() {
+            return jwtCache;
+        }
+
+        public void setJwtCache(JwtCache jwtCache) {
+            this.jwtCache = jwtCache;
+        }
+
+        public Revocation getRevocation() {
+            return revocation;
+        }
+
+        public void setRevocation(Revocation revocation) {
+            this.revocation = revocation;
+        }
+
+        public Password getPassword() {
+            return password;
+        }
+
+        public void setPassword(Password password) {
+            this.password = password;
+        }
+
+        public Availability getAvailability() {
+            return availability;
+        }
+
+        public void setAvailability(Availability availability) {
+            this.availability = availability;
+        }
+    }
+
+    public static class PrincipalCache {
+        private int maxSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(5);
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class JwtCache {
+        private int maxSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Revocation {
+        private long expectedInsertions = 100_000;
+        private double falsePositiveRate = 0.01;
+        private Duration positiveCacheTtl = Duration.ofMinutes(1);
+
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        public Duration getPositiveCacheTtl() {
+            return positiveCacheTtl;
+        }
+
+        public void setPositiveCacheTtl(Duration positiveCacheTtl) {
+            this.positiveCacheTtl = positiveCacheTtl;
+        }
+    }
+
+    public static class Availability {
+        private long expectedInsertions = 200_000;
+        private double falsePositiveRate = 0.01;
+
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+    }
+
+    public static class Password {
+        // 0 = calibration automatique au démarrage
+        private int strength = 0;
+        private Duration targetHashTime = Duration.ofMillis(250);
+        private int minStrength = 10;
+        private int maxStrength = 14;
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 64;
+        private Duration timeout = Duration.ofSeconds(5);
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public void setStrength(int strength) {
+            this.strength = strength;
+        }
+
+        public Duration getTargetHashTime() {
+            return targetHashTime;
+        }
+
+        public void setTargetHashTime(Duration targetHashTime) {
+            this.targetHashTime = targetHashTime;
+        }
+
+        public int getMinStrength() {
+            return minStrength;
+        }
+
+        public void setMinStrength(int minStrength) {
+            this.minStrength = minStrength;
+        }
+
+        public int getMaxStrength() {
+            return maxStrength;
+        }
+
+        public void setMaxStrength(int maxStrength) {
+            this.maxStrength = maxStrength;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class RateLimit {
+        private boolean enabled = true;
+        private int maxBuckets = 100_000;
+        private Duration idleTtl = Duration.ofMinutes(15);
+        // Proxys de confiance (IP ou CIDR) : seuls eux peuvent fixer l'IP cliente via X-Forwarded-For
+        private List<String> trustedProxies = new ArrayList<>();
+        // Surcharge des limites par route (clé = nom de la route en minuscules, ex: login)
+        private Map<String, Limit> routes = new HashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBuckets() {
+            return maxBuckets;
+        }
+
+        public void setMaxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        public Duration getIdleTtl() {
+            return idleTtl;
+        }
+
+        public void setIdleTtl(Duration idleTtl) {
+            this.idleTtl = idleTtl;
+        }
+
+        public List<String> getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(List<String> trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+
+        public Map<String, Limit> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(Map<String, Limit> routes) {
+            this.routes = routes;
+        }
+    }
+
+    public static class Limit {
+        private int capacity;
+        private Duration refillPeriod;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        // Durée pour remplir entièrement le seau
+        public Duration getRefillPeriod() {
+            return refillPeriod;
+        }
+
+        public void setRefillPeriod(Duration refillPeriod) {
+            this.refillPeriod = refillPeriod;
+        }
+    }
+
+    public static class Maintenance {
+        private boolean enabled = true;
+        private int batchSize = 1000;
+        private int maxBatchesPerRun = 500;
+        // Tokens expirés conservés encore ce délai avant suppression
+        private Duration tokenRetention = Duration.ofDays(1);
+        // Comptes jamais vérifiés supprimés après ce délai
+        private Duration unverifiedRetention = Duration.ofDays(7);
+        private String tokenPurgeCron = "0 */15 * * * *";
+        private String unverifiedPurgeCron = "0 30 3 * * *";
+        // Mails envoyés ou abandonnés conservés ce délai dans l'outbox
+        private Duration outboxRetention = Duration.ofDays(7);
+        private String outboxPurgeCron = "0 0 * * * *";
+        private String counterReconcileCron = "0 15 4 * * *";
+        // Sous-arbres de catégories supprimés logiquement
+        private String categoryPurgeCron = "0 * * * * *";
+        // Clés d'ordre : fratries réécrites dès qu'une clé dépasse cette longueur
+        private String positionRebalanceCron = "0 45 * * * *";
+        private int positionMaxLength = 24;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxBatchesPerRun() {
+            return maxBatchesPerRun;
+        }
+
+        public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+            this.maxBatchesPerRun = maxBatchesPerRun;
+        }
+
+        public Duration getTokenRetention() {
+            return tokenRetention;
+        }
+
+        public void setTokenRetention(Duration tokenRetention) {
+            this.tokenRetention = tokenRetention;
+        }
+
+        public Duration getUnverifiedRetention() {
+            return unverifiedRetention;
+        }
+
+        public void setUnverifiedRetention(Duration unverifiedRetention) {
+            this.unverifiedRetention = unverifiedRetention;
+        }
+
+        public String getTokenPurgeCron() {
+            return tokenPurgeCron;
+        }
+
+        public void setTokenPurgeCron(String tokenPurgeCron) {
+            this.tokenPurgeCron = tokenPurgeCron;
+        }
+
+        public String getUnverifiedPurgeCron() {
+            return unverifiedPurgeCron;
+        }
+
+        public void setUnverifiedPurgeCron(String unverifiedPurgeCron) {
+            this.unverifiedPurgeCron = unverifiedPurgeCron;
+        }
+
+        public Duration getOutboxRetention() {
+            return outboxRetention;
+        }
+
+        public void setOutboxRetention(Duration outboxRetention) {
+            this.outboxRetention = outboxRetention;
+        }
+
+        public String getOutboxPurgeCron() {
+            return outboxPurgeCron;
+        }
+
+        public void setOutboxPurgeCron(String outboxPurgeCron) {
+            this.outboxPurgeCron = outboxPurgeCron;
+        }
+
+        public String getCounterReconcileCron() {
+            return counterReconcileCron;
+        }
+
+        public void setCounterReconcileCron(String counterReconcileCron) {
+            this.counterReconcileCron = counterReconcileCron;
+        }
+
+        public String getCategoryPurgeCron() {
+            return categoryPurgeCron;
+        }
+
+        public void setCategoryPurgeCron(String categoryPurgeCron) {
+            this.categoryPurgeCron = categoryPurgeCron;
+        }
+
+        public String getPositionRebalanceCron() {
+            return positionRebalanceCron;
+        }
+
+        public void setPositionRebalanceCron(String positionRebalanceCron) {
+            this.positionRebalanceCron = positionRebalanceCron;
+        }
+
+        public int getPositionMaxLength() {
+            return positionMaxLength;
+        }
+
+        public void setPositionMaxLength(int positionMaxLength) {
+            this.positionMaxLength = positionMaxLength;
+        }
+    }
+
+    public static class Mail {
+        private Outbox outbox = new Outbox();
+        private SmtpPool pool = new SmtpPool();
+        private Digest digest = new Digest();
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        public void setOutbox(Outbox outbox) {
+            this.outbox = outbox;
+        }
+
+        public SmtpPool getPool() {
+            return pool;
+        }
+
+        public void setPool(SmtpPool pool) {
+            this.pool = pool;
+        }
+
+        public Digest getDigest() {
+            return digest;
+        }
+
+        public void setDigest(Digest digest) {
+            this.digest = digest;
+        }
+    }
+
+    public static class Digest {
+        private boolean enabled = true;
+        private String cron = "0 0 9 * * MON";
+        // Fenêtre du premier digest (ensuite : depuis la fin du précédent)
+        private Duration initialWindow = Duration.ofDays(7);
+        private int maxDocuments = 20;
+        // Destinataires lus puis envoyés avant chaque point de reprise
+        private int segmentSize = 500;
+        private int batchSize = 50;
+        private int workers = 4;
+        private int messagesPerSecond = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public Duration getInitialWindow() {
+            return initialWindow;
+        }
+
+        public void setInitialWindow(Duration initialWindow) {
+            this.initialWindow = initialWindow;
+        }
+
+        public int getMaxDocuments() {
+            return maxDocuments;
+        }
+
+        public void setMaxDocuments(int maxDocuments) {
+            this.maxDocuments = maxDocuments;
+        }
+
+        public int getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getMessagesPerSecond() {
+            return messagesPerSecond;
+        }
+
+        public void setMessagesPerSecond(int messagesPerSecond) {
+            this.messagesPerSecond = messagesPerSecond;
+        }
+    }
+
+    public static class SmtpPool {
+        private boolean enabled = true;
+        private int maxConnections = 4;
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        // Beaucoup de serveurs limitent le nombre de messages par session
+        private int maxMessagesPerConnection = 100;
+        private Duration borrowTimeout = Duration.ofSeconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public int getMaxMessagesPerConnection() {
+            return maxMessagesPerConnection;
+        }
+
+        public void setMaxMessagesPerConnection(int maxMessagesPerConnection) {
+            this.maxMessagesPerConnection = maxMessagesPerConnection;
+        }
+
+        public Duration getBorrowTimeout() {
+            return borrowTimeout;
+        }
+
+        public void setBorrowTimeout(Duration borrowTimeout) {
+            this.borrowTimeout = borrowTimeout;
+        }
+    }
+
+    public static class Outbox {
+        private Duration pollInterval = Duration.ofSeconds(5);
+        private int batchSize = 50;
+        private int workers = 4;
+        // Durée pendant laquelle une ligne réclamée n'est pas reprise par un autre nœud
+        private Duration lease = Duration.ofMinutes(2);
+        private int maxAttempts = 8;
+        private Duration initialBackoff = Duration.ofSeconds(30);
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
     }
 }
@@ -1,15 +1,89 @@
 package com.backend.config;
 
+import com.backend.security.PasswordHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
 @Configuration
 public class PasswordConfig {
 
+    private static final String CALIBRATION_PASSWORD = "Calibration#2024-password";
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.Password config = appProperties.getSecurity().getPassword();
+        int strength = config.getStrength() > 0 ? config.getStrength() : calibrateStrength(config);
+        Gauge.builder("password.hashing.strength", () -> strength).register(meterRegistry);
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * ⏱️ Choisit le coût BCrypt le plus élevé dont le temps estimé reste sous la cible
+     * sur la machine courante (chaque +1 double le temps de hachage).
+     */
+    private int calibrateStrength(AppProperties.Password config) {
+        int base = config.getMinStrength();
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(base);
+        probe.encode(CALIBRATION_PASSWORD); // échauffement
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        long targetNanos = config.getTargetHashTime().toNanos();
+        int strength = base;
+        long estimate = best;
+        while (strength < config.getMaxStrength() && estimate * 2 <= targetNanos) {
+            estimate *= 2;
+            strength++;
+        }
+        log.info("Coût BCrypt calibré à {} (~{} ms par hachage, cible {} ms)",
+                strength, TimeUnit.NANOSECONDS.toMillis(estimate), config.getTargetHashTime().toMillis());
+        return strength;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHasher passwordHasher(PasswordEncoder passwordEncoder, AppProperties appProperties,
+                                         MeterRegistry meterRegistry) {
+        AppProperties.Password config = appProperties.getSecurity().getPassword();
+        int poolSize = Math.max(1, config.getPoolSize());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy() // ✅ rejet immédiat quand la file est pleine
+        );
+
+        // 📊 Taille du pool, threads actifs, file d'attente, tâches terminées
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+        Counter rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+
+        return new PasswordHasher(passwordEncoder, executor, config.getTimeout(), rejected);
     }
 }
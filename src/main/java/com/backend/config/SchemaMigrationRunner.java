@@ -0,0 +1,187 @@
+package com.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Étapes de schéma que `ddl-auto: update` ne sait pas faire
+ * (suppression d'anciennes contraintes, index spécifiques, backfills).
+ * Chaque étape est idempotente et rejouée à chaque démarrage.
+ * Jouées une fois tous les singletons créés (schéma Hibernate à jour), avant le démarrage
+ * du serveur web et des tâches planifiées. Certaines portent des invariants que les entités
+ * ne déclarent plus (unicité des noms et slugs visibles) : une étape en échec arrête le démarrage.
+ */
+@Component
+@RequiredArgsConstructor
+public class SchemaMigrationRunner implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record Step(String name, String sql) {
+    }
+
+    private static final List<Step> STEPS = List.of(
+            // Les anciennes contraintes uniques au nom généré par Hibernate doublonnent
+            // les contraintes nommées : on les supprime pour que les violations soient traduisibles.
+            new Step("drop-legacy-unique-constraints", """
+                    DO $$
+                    DECLARE r record;
+                    BEGIN
+                        FOR r IN
+                            SELECT cls.relname, con.conname
+                            FROM pg_constraint con
+                            JOIN pg_class cls ON cls.oid = con.conrelid
+                            WHERE con.contype = 'u'
+                              AND cls.relname IN ('users', 'categories', 'documents')
+                              AND con.conname NOT LIKE 'uk\\_%'
+                              AND EXISTS (
+                                  SELECT 1 FROM pg_constraint named
+                                  WHERE named.conrelid = con.conrelid
+                                    AND named.contype = 'u'
+                                    AND named.conkey = con.conkey
+                                    AND named.conname LIKE 'uk\\_%')
+                        LOOP
+                            EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', r.relname, r.conname);
+                        END LOOP;
+                    END $$
+                    """),
+            // tokens_checkout.token (JWT complet, VARCHAR unique) → token_hash (SHA-256, bytea).
+            // Hibernate ajoute token_hash nullable (une colonne NOT NULL échouerait sur une table
+            // non vide) : backfill, suppression de l'ancienne colonne, puis NOT NULL ici.
+            new Step("tokens-checkout-token-hash", """
+                    DO $$
+                    BEGIN
+                        IF EXISTS (SELECT 1 FROM information_schema.columns
+                                   WHERE table_name = 'tokens_checkout' AND column_name = 'token') THEN
+                            ALTER TABLE tokens_checkout ADD COLUMN IF NOT EXISTS token_hash bytea;
+                            UPDATE tokens_checkout SET token_hash = sha256(convert_to(token, 'UTF8'))
+                            WHERE token_hash IS NULL;
+                            ALTER TABLE tokens_checkout DROP COLUMN token;
+                        END IF;
+                        -- Lignes sans empreinte : inutilisables, le token ne peut plus être retrouvé
+                        DELETE FROM tokens_checkout WHERE token_hash IS NULL;
+                        ALTER TABLE tokens_checkout ALTER COLUMN token_hash SET NOT NULL;
+                        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_tokens_checkout_token_hash') THEN
+                            ALTER TABLE tokens_checkout
+                                ADD CONSTRAINT uk_tokens_checkout_token_hash UNIQUE (token_hash);
+                        END IF;
+                    END $$
+                    """),
+            new Step("tokens-checkout-user-type-used-index", """
+                    CREATE INDEX IF NOT EXISTS idx_tokens_checkout_user_type_used
+                        ON tokens_checkout (user_id, type, used)
+                    """),
+            // Unicité insensible à la casse, alignée sur /api/auth/availability (lower(...)) :
+            // "John" et "john" ne peuvent plus coexister. Si la base contient déjà de tels doublons,
+            // l'index reste non unique (avertissement) jusqu'à leur résolution manuelle.
+            new Step("users-lower-identity-indexes", """
+                    DO $$
+                    DECLARE c record;
+                    BEGIN
+                        FOR c IN SELECT * FROM (VALUES ('email'), ('username')) AS t(col) LOOP
+                            IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relname = 'uk_users_lower_' || c.col) THEN
+                                BEGIN
+                                    EXECUTE format('CREATE UNIQUE INDEX uk_users_lower_%1$s ON users (lower(%1$s))', c.col);
+                                    EXECUTE format('DROP INDEX IF EXISTS idx_users_lower_%s', c.col);
+                                EXCEPTION WHEN unique_violation THEN
+                                    RAISE WARNING 'Doublons de casse sur users.%, index non unique conservé', c.col;
+                                    EXECUTE format('CREATE INDEX IF NOT EXISTS idx_users_lower_%1$s ON users (lower(%1$s))', c.col);
+                                END;
+                            END IF;
+                        END LOOP;
+                    END $$
+                    """),
+            // Synchronisation périodique du filtre de disponibilité (updated_at > :since)
+            new Step("users-updated-at-index", """
+                    CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at)
+                    """),
+            // Chemin matérialisé des catégories : recalculé depuis parent_id (répare aussi une dérive),
+            // puis indexé pour les recherches par préfixe (LIKE '/1/5/%')
+            new Step("categories-materialized-path", """
+                    ALTER TABLE categories ADD COLUMN IF NOT EXISTS path varchar(2000);
+                    WITH RECURSIVE tree AS (
+                        SELECT id, '/' || id || '/' AS path FROM categories WHERE parent_id IS NULL
+                        UNION ALL
+                        SELECT c.id, tree.path || c.id || '/' FROM categories c JOIN tree ON c.parent_id = tree.id
+                    )
+                    UPDATE categories c SET path = tree.path
+                    FROM tree
+                    WHERE c.id = tree.id AND c.path IS DISTINCT FROM tree.path;
+                    CREATE INDEX IF NOT EXISTS idx_categories_path ON categories (path text_pattern_ops)
+                    """),
+            // Catégories en attente de purge : index partiel, vide en temps normal
+            new Step("categories-deleted-at-index", """
+                    CREATE INDEX IF NOT EXISTS idx_categories_deleted_at
+                        ON categories (deleted_at) WHERE deleted_at IS NOT NULL
+                    """),
+            // Unicité limitée aux lignes visibles : une catégorie ou un document supprimé (en attente de purge)
+            // ne bloque pas la recréation du même nom. Les documents héritent d'abord du deleted_at de leur catégorie.
+            new Step("partial-unique-names-and-slugs", """
+                    UPDATE documents d SET deleted_at = c.deleted_at
+                    FROM categories c
+                    WHERE c.id = d.category_id AND c.deleted_at IS NOT NULL AND d.deleted_at IS NULL;
+                    DO $$
+                    DECLARE r record;
+                    BEGIN
+                        FOR r IN SELECT * FROM (VALUES ('categories', 'name'), ('categories', 'slug'),
+                                                       ('documents', 'name'), ('documents', 'slug')) AS t(tbl, col)
+                        LOOP
+                            EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS %I',
+                                    r.tbl, 'uk_' || r.tbl || '_' || r.col);
+                            EXECUTE format('CREATE UNIQUE INDEX IF NOT EXISTS %I ON %I (%I) WHERE deleted_at IS NULL',
+                                    'uk_' || r.tbl || '_' || r.col, r.tbl, r.col);
+                        END LOOP;
+                    END $$
+                    """),
+            // Modèle de lecture des listes de documents (DocumentListingService) : une ligne à plat
+            // par document visible, un index par ordre de lecture. Sous-arbre (préfixe du chemin) : l'index
+            // borne le parcours et y évalue le curseur, mais plusieurs catégories s'entrelacent, le tri reste
+            // un top-N sur les lignes du sous-arbre
+            new Step("document-listing-read-model", """
+                    CREATE TABLE IF NOT EXISTS document_listing (
+                        document_id bigint PRIMARY KEY,
+                        slug varchar(255) NOT NULL,
+                        name varchar(255) NOT NULL,
+                        description varchar(5000) NOT NULL,
+                        url_pdf varchar(255) NOT NULL,
+                        position varchar(255) COLLATE "C",
+                        created_at timestamp(6) NOT NULL,
+                        updated_at timestamp(6) NOT NULL,
+                        category_id bigint NOT NULL,
+                        category_slug varchar(255) NOT NULL,
+                        category_name varchar(255) NOT NULL,
+                        category_description varchar(5000) NOT NULL,
+                        category_path varchar(2000)
+                    );
+                    CREATE INDEX IF NOT EXISTS idx_document_listing_category_created
+                        ON document_listing (category_id, created_at DESC, document_id DESC);
+                    CREATE INDEX IF NOT EXISTS idx_document_listing_category_position
+                        ON document_listing (category_id, position, document_id);
+                    CREATE INDEX IF NOT EXISTS idx_document_listing_created
+                        ON document_listing (created_at DESC, document_id DESC);
+                    DROP INDEX IF EXISTS idx_document_listing_path;
+                    CREATE INDEX IF NOT EXISTS idx_document_listing_path_created
+                        ON document_listing (category_path text_pattern_ops, created_at DESC, document_id DESC)
+                    """),
+            // Corps des mails déjà traités (tokens en clair dans les liens) : effacés comme le fait markSent
+            new Step("mail-outbox-clear-processed-bodies", """
+                    UPDATE mail_outbox SET body_html = NULL, body_text = NULL
+                    WHERE status <> 'PENDING' AND (body_html IS NOT NULL OR body_text IS NOT NULL)
+                    """)
+    );
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Step step : STEPS) {
+            try {
+                jdbcTemplate.execute(step.sql());
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Échec de l'étape de migration '" + step.name() + "'", e);
+            }
+        }
+    }
+}
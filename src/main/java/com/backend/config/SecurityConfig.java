@@ -1,10 +1,15 @@
 package com.backend.config;
 
 import com.backend.filter.JwtAuthenticationFilter;
+import com.backend.filter.RateLimitFilter;
 import com.backend.repository.UserRepository;
 import com.backend.security.CustomAuthenticationEntryPoint;
+import com.backend.security.PrincipalCache;
+import com.backend.security.RateLimiter;
 import com.backend.service.JwtTokenService;
+import com.backend.service.TokenRevocationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -18,28 +23,59 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @Configuration
 public class SecurityConfig {
     private final JwtTokenService jwtTokenService;
+    private final TokenRevocationService tokenRevocationService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final RateLimiter rateLimiter;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final ObjectMapper objectMapper;
     private final CorsConfig corsConfig;
+    private final AppProperties appProperties;
 
     public SecurityConfig(
             JwtTokenService jwtTokenService,
+            TokenRevocationService tokenRevocationService,
             UserRepository userRepository,
+            PrincipalCache principalCache,
+            RateLimiter rateLimiter,
             CustomAuthenticationEntryPoint customAuthenticationEntryPoint,
             CorsConfig corsConfig,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            AppProperties appProperties
     ) {
         this.jwtTokenService = jwtTokenService;
+        this.tokenRevocationService = tokenRevocationService;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.rateLimiter = rateLimiter;
         this.customAuthenticationEntryPoint = customAuthenticationEntryPoint;
         this.corsConfig = corsConfig;
         this.objectMapper = objectMapper;
+        this.appProperties = appProperties;
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenService, userRepository, objectMapper);
+        return new JwtAuthenticationFilter(
+                jwtTokenService,
+                tokenRevocationService,
+                userRepository,
+                principalCache,
+                objectMapper
+        );
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(rateLimiter, objectMapper, appProperties.getRateLimit().getTrustedProxies());
+    }
+
+    // Le filtre ne s'exécute que dans la chaîne de sécurité (avant le JWT), pas en plus au niveau servlet
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
     }
 
     @Bean
@@ -57,14 +93,18 @@ public class SecurityConfig {
                                 "/api/auth/forgot-password",
                                 "/api/auth/reset-password",
                                 "/api/auth/resend-verification",
+                                "/api/auth/availability",
                                 "/api/progressions/**"
                         ).permitAll()
                         .requestMatchers("/api/category/**").permitAll()
                         .requestMatchers("/api/document/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(AbstractHttpConfigurer::disable)
-                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter(), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,6 +1,7 @@
 package com.backend.controller;
 
 import com.backend.dto.auth.AuthResponse;
+import com.backend.dto.auth.AvailabilityResponse;
 import com.backend.dto.auth.LoginUserRequest;
 import com.backend.dto.auth.RegisterUserRequest;
 import com.backend.dto.auth.ResendVerificationRequest;
@@ -8,8 +9,10 @@ import com.backend.dto.common.SuccessResponse;
 import com.backend.dto.resetpassword.ForgotPasswordRequest;
 import com.backend.dto.resetpassword.ResetPasswordRequest;
 import com.backend.dto.user.UserResponse;
+import com.backend.exception.BadRequestException;
 import com.backend.exception.MissingTokenException;
 import com.backend.service.AuthService;
+import com.backend.service.AvailabilityService;
 import com.backend.util.ResponseFactory;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class AuthController {
     private final AuthService authService;
+    private final AvailabilityService availabilityService;
 
     @PostMapping("/register")
     public ResponseEntity<SuccessResponse<UserResponse>> register(
@@ -31,6 +35,21 @@ public class AuthController {
         return ResponseEntity.status(201).body(ResponseFactory.success(user));
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<SuccessResponse<AvailabilityResponse>> availability(
+            @RequestParam(value = "username", required = false) String username,
+            @RequestParam(value = "email", required = false) String email
+    ) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            throw new BadRequestException("Le nom d'utilisateur ou l'adresse e-mail est obligatoire");
+        }
+        AvailabilityResponse availability = availabilityService.check(
+                username == null || username.isBlank() ? null : username,
+                email == null || email.isBlank() ? null : email
+        );
+        return ResponseEntity.ok(ResponseFactory.success(availability));
+    }
+
     @PostMapping("/login")
     public ResponseEntity<SuccessResponse<AuthResponse>> login(
             @RequestBody @Valid LoginUserRequest request
@@ -59,6 +78,23 @@ public class AuthController {
         return ResponseEntity.ok(ResponseFactory.success(auth));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<SuccessResponse<String>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization
+    ) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new MissingTokenException("Token manquant ou invalide");
+        }
+        authService.logout(authorization.substring(7));
+        return ResponseEntity.ok(ResponseFactory.success("Déconnexion effectuée"));
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<SuccessResponse<String>> logoutEverywhere() {
+        authService.logoutEverywhere();
+        return ResponseEntity.ok(ResponseFactory.success("Toutes les sessions ont été fermées"));
+    }
+
     @PostMapping("/forgot-password")
     public ResponseEntity<SuccessResponse<String>>forgotPassword(
             @Valid @RequestBody ForgotPasswordRequest request
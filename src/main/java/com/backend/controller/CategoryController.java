@@ -2,11 +2,19 @@ package com.backend.controller;
 
 import com.backend.dto.category.CategoryResponse;
 import com.backend.dto.category.CreateCategoryRequest;
+import com.backend.dto.category.ImportCategoriesRequest;
+import com.backend.dto.category.ImportCategoriesResponse;
+import com.backend.dto.common.PagedResponse;
+import com.backend.dto.common.PositionRequest;
 import com.backend.dto.common.SuccessResponse;
+import com.backend.service.CategoryImportService;
 import com.backend.service.CategoryService;
+import com.backend.util.RequestUtil;
 import com.backend.util.ResponseFactory;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +25,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryController {
     private final CategoryService categoryService;
+    private final CategoryImportService categoryImportService;
 
     @PostMapping
     public ResponseEntity<SuccessResponse<CategoryResponse>>create(
@@ -26,19 +35,69 @@ public class CategoryController {
         return ResponseEntity.status(201).body(ResponseFactory.success(category));
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SuccessResponse<ImportCategoriesResponse>>importTree(
+            @RequestBody @Valid ImportCategoriesRequest request
+    ){
+        var report = categoryImportService.importTree(request);
+        return ResponseEntity.ok(ResponseFactory.success(report));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<SuccessResponse<ImportCategoriesResponse>>importCsv(
+            @RequestBody String csv,
+            @RequestParam(name = "parentId", required = false) Long parentId
+    ){
+        var report = categoryImportService.importCsv(csv, parentId);
+        return ResponseEntity.ok(ResponseFactory.success(report));
+    }
+
     @GetMapping
-    public ResponseEntity<SuccessResponse<List<CategoryResponse>>>getCategoryParent(){
-        var categories = categoryService.getCategoryParent();
+    public ResponseEntity<SuccessResponse<List<CategoryResponse>>>getCategoryParent(
+            @RequestParam(name = "depth", required = false) Integer depth
+    ){
+        var categories = categoryService.getCategoryParent(depth);
         return ResponseEntity.ok(ResponseFactory.success(categories));
     }
 
     @GetMapping("/{slug}")
     public ResponseEntity<SuccessResponse<CategoryResponse>>getBySlug(
+            @PathVariable String slug,
+            @RequestParam(name = "depth", required = false) Integer depth
+    ){
+        var category = categoryService.getCategoryBySlug(slug, depth);
+        return ResponseEntity.ok(ResponseFactory.success(category));
+    }
+
+    @GetMapping("/{slug}/children")
+    public ResponseEntity<SuccessResponse<PagedResponse<CategoryResponse>>>getChildren(
+            @PathVariable String slug,
+            @RequestParam(name = "depth", defaultValue = "0") int depth,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "20") int size
+    ){
+        Pageable pageable = RequestUtil.getPageable(page, size, true);
+        var children = categoryService.getChildren(slug, pageable, depth);
+        return ResponseEntity.ok(ResponseFactory.success(children));
+    }
+
+    @GetMapping("/{slug}/ancestors")
+    public ResponseEntity<SuccessResponse<List<CategoryResponse>>>getAncestors(
             @PathVariable String slug
     ){
-        var category = categoryService.getCategoryBySlug(slug);
+        var ancestors = categoryService.getAncestors(slug);
+        return ResponseEntity.ok(ResponseFactory.success(ancestors));
+    }
+
+    @PutMapping("/{slug}/position")
+    public ResponseEntity<SuccessResponse<CategoryResponse>>moveCategory(
+            @PathVariable String slug,
+            @RequestBody PositionRequest request
+    ){
+        var category = categoryService.moveCategory(slug, request);
         return ResponseEntity.ok(ResponseFactory.success(category));
     }
+
     @DeleteMapping("/{slug}")
     public ResponseEntity<SuccessResponse<String>>deleteCategory(
             @PathVariable String slug
@@ -0,0 +1,43 @@
+package com.backend.controller;
+
+import com.backend.dto.common.SuccessResponse;
+import com.backend.dto.digest.DigestRunResponse;
+import com.backend.service.DigestService;
+import com.backend.util.ResponseFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/digest")
+@RequiredArgsConstructor
+public class DigestController {
+    private final DigestService digestService;
+
+    @GetMapping("/runs")
+    public ResponseEntity<SuccessResponse<List<DigestRunResponse>>> getRuns(
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(ResponseFactory.success(digestService.getRuns(limit)));
+    }
+
+    @GetMapping("/runs/current")
+    public ResponseEntity<SuccessResponse<DigestRunResponse>> getCurrentRun() {
+        return ResponseEntity.ok(ResponseFactory.success(digestService.getCurrentRun()));
+    }
+
+    @PostMapping("/runs")
+    public ResponseEntity<SuccessResponse<String>> start() {
+        digestService.startNow();
+        return ResponseEntity.accepted().body(ResponseFactory.success("Digest lancé (ou repris s'il était en cours)"));
+    }
+
+    @PostMapping("/runs/{id}/cancel")
+    public ResponseEntity<SuccessResponse<DigestRunResponse>> cancel(
+            @PathVariable Long id
+    ) {
+        return ResponseEntity.ok(ResponseFactory.success(digestService.cancel(id)));
+    }
+}
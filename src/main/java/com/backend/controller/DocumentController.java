@@ -1,10 +1,12 @@
 package com.backend.controller;
 
 import com.backend.dto.common.PagedResponse;
+import com.backend.dto.common.PositionRequest;
 import com.backend.dto.common.SuccessResponse;
 import com.backend.dto.document.CreateDocumentRequest;
 import com.backend.dto.document.DocumentResponse;
 import com.backend.dto.document.UpdateDocumentRequest;
+import com.backend.service.DocumentListingService;
 import com.backend.service.DocumentService;
 import com.backend.util.RequestUtil;
 import com.backend.util.ResponseFactory;
@@ -21,6 +23,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DocumentController {
     private final DocumentService documentService;
+    private final DocumentListingService documentListingService;
 
     @PostMapping(consumes = "multipart/form-data")
     public ResponseEntity<SuccessResponse<DocumentResponse>> create(
@@ -41,11 +44,25 @@ public class DocumentController {
     @GetMapping("/category")
     public ResponseEntity<SuccessResponse<PagedResponse<DocumentResponse>>>getByCategory(
             @RequestParam(name = "slug") String slug,
+            @RequestParam(name = "includeDescendants", defaultValue = "false") boolean includeDescendants,
+            @RequestParam(name = "sort", defaultValue = "recent") String sort,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "total", defaultValue = "exact") String total,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "20") int size
     ){
-        Pageable pageable = RequestUtil.getPageable(page, size, true);
-        var docs = documentService.getDocumentsByCategorySlug(slug, pageable);
+        // 🔖 ?after= (même vide) : pagination par curseur ; sinon numéros de page (anciens clients)
+        if (after != null) {
+            var docs = documentService.getDocumentsByCategorySlugAfter(slug, includeDescendants,
+                    "position".equalsIgnoreCase(sort), after, RequestUtil.getPageSize(size));
+            return ResponseEntity.ok(ResponseFactory.success(docs));
+        }
+        // "position" : ordre pédagogique choisi par l'admin ; sinon les plus récents d'abord
+        Pageable pageable = "position".equalsIgnoreCase(sort)
+                ? RequestUtil.getPositionPageable(page, size)
+                : RequestUtil.getPageable(page, size, true);
+        var docs = documentService.getDocumentsByCategorySlug(slug, includeDescendants, pageable,
+                RequestUtil.getTotalMode(total));
         return ResponseEntity.ok(ResponseFactory.success(docs));
     }
 
@@ -66,6 +83,14 @@ public class DocumentController {
         var doc = documentService.updateDocument(slug, request);
         return ResponseEntity.ok(ResponseFactory.success(doc));
     }
+    @PutMapping("/{slug}/position")
+    public ResponseEntity<SuccessResponse<DocumentResponse>>moveDocument(
+            @PathVariable String slug,
+            @RequestBody PositionRequest request
+    ){
+        var doc = documentService.moveDocument(slug, request);
+        return ResponseEntity.ok(ResponseFactory.success(doc));
+    }
 
     @GetMapping("/latest")
     public ResponseEntity<SuccessResponse<List<DocumentResponse>>>getLastestDocuments(
@@ -80,4 +105,13 @@ public class DocumentController {
         var docs = documentService.getAllDocumentsByAdmin();
         return ResponseEntity.ok(ResponseFactory.success(docs));
     }
+
+    @PostMapping("/admin/listing/rebuild")
+    public ResponseEntity<SuccessResponse<String>>rebuildListing(){
+        long rows = documentListingService.rebuild();
+        String message = rows < 0
+                ? "Reconstruction déjà en cours ou en échec"
+                : "Liste des documents reconstruite : " + rows + " ligne(s)";
+        return ResponseEntity.ok(ResponseFactory.success(message));
+    }
 }
@@ -0,0 +1,18 @@
+package com.backend.dto.auth;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponse {
+    // null si le champ n'a pas été demandé
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
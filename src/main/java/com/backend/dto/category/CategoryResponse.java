@@ -18,5 +18,9 @@ public class CategoryResponse {
     private String description;
     private CategoryResponse parent;
     private List<CategoryResponse> children;
+    // Vrai même si children n'a pas été développé (profondeur atteinte) : le client peut le charger
+    private boolean hasChildren;
     private int count;
+    // Documents de la catégorie et de toutes ses sous-catégories
+    private int totalCount;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.backend.dto.category;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportCategoriesRequest {
+
+    private Long parentId; // nullable → les nœuds de premier niveau sont des racines
+
+    @NotEmpty(message = "L'arbre à importer est vide")
+    private List<ImportCategoryNode> categories;
+}
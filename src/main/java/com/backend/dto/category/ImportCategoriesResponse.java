@@ -0,0 +1,19 @@
+package com.backend.dto.category;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportCategoriesResponse {
+    private int created;
+    private int rejected;
+    private long durationMs;
+    private List<ImportCategoryResult> results;
+}
@@ -0,0 +1,26 @@
+package com.backend.dto.category;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nœud d'un arbre importé en bloc ; les enfants sont créés sous lui.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportCategoryNode {
+
+    private String name;
+
+    private String description;
+
+    @Builder.Default
+    private List<ImportCategoryNode> children = new ArrayList<>();
+}
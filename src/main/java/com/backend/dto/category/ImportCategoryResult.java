@@ -0,0 +1,19 @@
+package com.backend.dto.category;
+
+import com.backend.enums.CategoryImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportCategoryResult {
+    private String path;
+    private Long id;
+    private String slug;
+    private CategoryImportStatus status;
+    private String error;
+}
@@ -1,6 +1,7 @@
 package com.backend.dto.common;
 
 
+import com.backend.enums.PaginationMode;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.data.domain.Page;
@@ -12,15 +13,20 @@ import java.util.List;
 public class PagedResponse<T> {
     private List<T> content;
     private Meta meta;
+    // Mode curseur : à renvoyer dans ?after= pour la page suivante, absent sur la dernière page
+    private String nextCursor;
 
     @Data
     @AllArgsConstructor
     public static class Meta {
-        private int page;
+        // Absents en mode curseur : ni numéro de page ni total (le compter coûterait un parcours complet)
+        private Integer page;
         private int size;
-        private long totalElements;
-        private int totalPages;
+        // Absents en mode SLICE ; estimés en mode APPROXIMATE
+        private Long totalElements;
+        private Integer totalPages;
         private boolean last;
+        private PaginationMode mode;
     }
 
     public static <T> PagedResponse<T> fromPage(Page<T> page) {
@@ -29,8 +35,31 @@ public class PagedResponse<T> {
                 page.getSize(),
                 page.getTotalElements(),
                 page.getTotalPages(),
-                page.isLast()
+                page.isLast(),
+                PaginationMode.EXACT
         );
-        return new PagedResponse<>(page.getContent(), meta);
+        return new PagedResponse<>(page.getContent(), meta, null);
+    }
+
+    public static <T> PagedResponse<T> fromSlice(List<T> content, int page, int size, boolean hasNext) {
+        Meta meta = new Meta(page, size, null, null, !hasNext, PaginationMode.SLICE);
+        return new PagedResponse<>(content, meta, null);
+    }
+
+    /**
+     * @param estimatedTotal total issu d'un compteur ; "last" reste exact (sonde d'une ligne de plus)
+     */
+    public static <T> PagedResponse<T> fromApproximate(List<T> content, int page, int size,
+                                                       long estimatedTotal, boolean hasNext) {
+        // Jamais moins que ce qui a déjà été vu, même si le compteur retarde
+        long total = Math.max(estimatedTotal, (long) page * size + content.size() + (hasNext ? 1 : 0));
+        Meta meta = new Meta(page, size, total, (int) ((total + size - 1) / size), !hasNext,
+                PaginationMode.APPROXIMATE);
+        return new PagedResponse<>(content, meta, null);
+    }
+
+    public static <T> PagedResponse<T> fromCursor(List<T> content, int size, String nextCursor) {
+        Meta meta = new Meta(null, size, null, null, nextCursor == null, PaginationMode.CURSOR);
+        return new PagedResponse<>(content, meta, nextCursor);
     }
 }
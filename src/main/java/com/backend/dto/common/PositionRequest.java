@@ -0,0 +1,21 @@
+package com.backend.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nouvelle place d'un élément parmi ses frères, désignés par leur slug.
+ * Au moins un des deux voisins est requis ; l'autre est omis en début ou en fin de liste.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PositionRequest {
+
+    private String afterSlug; // élément qui précédera, null → en tête
+
+    private String beforeSlug; // élément qui suivra, null → en fin
+}
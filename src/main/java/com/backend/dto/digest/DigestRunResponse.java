@@ -0,0 +1,29 @@
+package com.backend.dto.digest;
+
+import com.backend.enums.DigestRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DigestRunResponse {
+    private Long id;
+    private DigestRunStatus status;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private int documentCount;
+    private long totalRecipients;
+    private long sentCount;
+    private long failedCount;
+    private double progressPercent;
+    private double messagesPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,6 @@
+package com.backend.enums;
+
+public enum CategoryImportStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,7 @@
+package com.backend.enums;
+
+public enum DigestRunStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED
+}
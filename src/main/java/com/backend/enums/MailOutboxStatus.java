@@ -0,0 +1,7 @@
+package com.backend.enums;
+
+public enum MailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.backend.enums;
+
+/**
+ * Manière dont une page a été produite, et donc ce que valent les totaux de PagedResponse.Meta.
+ */
+public enum PaginationMode {
+    EXACT,       // COUNT(*) : total exact
+    SLICE,       // une ligne de plus que la page : "last" seulement, pas de total
+    APPROXIMATE, // total tiré des compteurs maintenus, peut retarder de quelques écritures
+    CURSOR       // pagination par curseur : nextCursor, ni numéro de page ni total
+}
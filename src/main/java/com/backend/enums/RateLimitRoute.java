@@ -0,0 +1,42 @@
+package com.backend.enums;
+
+import java.time.Duration;
+
+/**
+ * Classes de routes soumises à la limitation de débit, avec leurs limites par défaut.
+ */
+public enum RateLimitRoute {
+    LOGIN(10, Duration.ofMinutes(1), true),
+    REGISTER(5, Duration.ofMinutes(10), false),
+    PASSWORD_RESET(5, Duration.ofMinutes(15), true),
+    VERIFICATION(5, Duration.ofMinutes(15), true),
+    CATALOG(120, Duration.ofMinutes(1), false),
+    AVAILABILITY(30, Duration.ofMinutes(1), false);
+
+    private final int defaultCapacity;
+    private final Duration defaultRefillPeriod;
+    // ✅ Limite aussi par compte (email / nom d'utilisateur du corps de la requête)
+    private final boolean perAccount;
+
+    RateLimitRoute(int defaultCapacity, Duration defaultRefillPeriod, boolean perAccount) {
+        this.defaultCapacity = defaultCapacity;
+        this.defaultRefillPeriod = defaultRefillPeriod;
+        this.perAccount = perAccount;
+    }
+
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public Duration getDefaultRefillPeriod() {
+        return defaultRefillPeriod;
+    }
+
+    public boolean isPerAccount() {
+        return perAccount;
+    }
+
+    public String configKey() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,6 @@
+package com.backend.enums;
+
+public enum RevocationType {
+    TOKEN, // un token précis (logout)
+    USER   // tous les tokens d'un utilisateur émis avant la révocation
+}
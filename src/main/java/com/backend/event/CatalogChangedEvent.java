@@ -0,0 +1,8 @@
+package com.backend.event;
+
+/**
+ * Publié quand l'arbre des catégories ou la répartition des documents change :
+ * la photographie du catalogue est reconstruite après le commit.
+ */
+public record CatalogChangedEvent(String reason) {
+}
@@ -0,0 +1,8 @@
+package com.backend.event;
+
+/**
+ * Publié quand un mail est ajouté à l'outbox : le dispatcher est réveillé
+ * après le commit sans attendre le prochain passage planifié.
+ */
+public record MailQueuedEvent(Long outboxId) {
+}
@@ -2,6 +2,8 @@ package com.backend.exception;
 
 import com.backend.dto.common.ErrorResponse;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mail.MailSendException;
@@ -216,6 +218,17 @@ public class GlobalExceptionHandler {
                         "La catégorie existe déjà"
                 ));
     }
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingBusy(PasswordHashingBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(
+                        ex.getMessage(),
+                        "SERVICE_BUSY",
+                        "Trop de demandes d'authentification simultanées, veuillez réessayer."
+                ));
+    }
+
     @ExceptionHandler(ResourceConflictException.class)
     public ResponseEntity<ErrorResponse> handleConflict(ResourceConflictException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
@@ -226,4 +239,24 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    /**
+     * Violation d'une contrainte d'unicité : traduite selon le nom de la contrainte
+     * vers l'exception métier habituelle (email, nom d'utilisateur, catégorie, document).
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        RuntimeException domainException = UniqueConstraintTranslator.translate(ex);
+        if (domainException instanceof EmailAlreadyExistsException e) return handleEmailExists(e);
+        if (domainException instanceof UsernameAlreadyExistsException e) return handleUsernameExists(e);
+        if (domainException instanceof CategoryAlreadyExist e) return handleCategoryAlreadyExiste(e);
+        if (domainException instanceof ResourceConflictException e) return handleConflict(e);
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(
+                        "Conflit de données",
+                        "DATA_CONFLICT",
+                        "L'opération viole une contrainte d'intégrité."
+                ));
+    }
+
 }
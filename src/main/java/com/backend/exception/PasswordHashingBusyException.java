@@ -0,0 +1,7 @@
+package com.backend.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException() {
+        super("Service d'authentification momentanément surchargé");
+    }
+}
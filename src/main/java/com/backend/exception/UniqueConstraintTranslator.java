@@ -0,0 +1,63 @@
+package com.backend.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Traduit une violation de contrainte d'unicité (nommée dans les entités)
+ * en exception métier.
+ */
+public class UniqueConstraintTranslator {
+
+    // Postgres : "Detail: Key (email)=(john@doe.fr) already exists."
+    // ou, sur un index d'expression : "Key (lower(email::text))=(john@doe.fr) already exists."
+    private static final Pattern DUPLICATE_VALUE = Pattern.compile("Key \\((.+)\\)=\\((.*)\\) already exists");
+
+    /**
+     * @return l'exception métier correspondante, ou null si la contrainte est inconnue.
+     */
+    public static RuntimeException translate(DataIntegrityViolationException ex) {
+        ConstraintViolationException violation = findViolation(ex);
+        if (violation == null || violation.getConstraintName() == null) {
+            return null;
+        }
+        String value = duplicateValue(violation);
+
+        return switch (violation.getConstraintName().toLowerCase()) {
+            case "uk_users_email", "uk_users_lower_email" -> new EmailAlreadyExistsException(value);
+            case "uk_users_username", "uk_users_lower_username" -> new UsernameAlreadyExistsException(value);
+            case "uk_categories_name" -> new CategoryAlreadyExist("Catégorie déjà existante");
+            case "uk_categories_slug" -> new CategoryAlreadyExist("Une catégorie avec ce slug existe déjà");
+            case "uk_documents_name" -> new ResourceConflictException("Un document avec ce nom existe déjà");
+            case "uk_documents_slug" -> new ResourceConflictException("Un document avec ce slug existe déjà");
+            default -> null;
+        };
+    }
+
+    private static ConstraintViolationException findViolation(Throwable ex) {
+        Throwable current = ex;
+        while (current != null) {
+            if (current instanceof ConstraintViolationException violation) {
+                return violation;
+            }
+            current = current.getCause();
+        }
+        return null;
+    }
+
+    private static String duplicateValue(ConstraintViolationException violation) {
+        String message = violation.getSQLException() != null
+                ? violation.getSQLException().getMessage()
+                : violation.getMessage();
+        if (message != null) {
+            Matcher matcher = DUPLICATE_VALUE.matcher(message);
+            if (matcher.find()) {
+                return matcher.group(2);
+            }
+        }
+        return "";
+    }
+}
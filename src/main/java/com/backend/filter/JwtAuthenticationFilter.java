@@ -4,8 +4,12 @@ package com.backend.filter;
 import com.backend.dto.common.ErrorResponse;
 import com.backend.model.User;
 import com.backend.repository.UserRepository;
+import com.backend.security.AuthenticatedUser;
+import com.backend.security.PrincipalCache;
 import com.backend.service.JwtTokenService;
+import com.backend.service.TokenRevocationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,17 +22,24 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.UUID;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
+    private final TokenRevocationService tokenRevocationService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
     private final ObjectMapper objectMapper;
 
-    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, UserRepository userRepository, ObjectMapper objectMapper
+    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, TokenRevocationService tokenRevocationService,
+                                   UserRepository userRepository, PrincipalCache principalCache,
+                                   ObjectMapper objectMapper
     ) {
         this.jwtTokenService = jwtTokenService;
+        this.tokenRevocationService = tokenRevocationService;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
         this.objectMapper = objectMapper;
     }
 
@@ -40,6 +51,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
+    private Optional<User> loadUser(UUID uuid) {
+        return principalCache.get(uuid, userRepository::findByUuid);
+    }
+
+    /**
+     * Construit le principal depuis l'état courant du compte : cache des principaux (invalidé
+     * à chaque écriture), la base seulement en cas d'absence. Un compte supprimé ou désactivé
+     * n'est plus authentifié ; rôle et autorités viennent du compte, pas du token.
+     */
+    private Optional<AuthenticatedUser> resolvePrincipal(Claims claims) {
+        String uuidClaim = claims.get("uuid", String.class);
+        if (uuidClaim == null) {
+            // Tokens sans uuid (reset, vérification) : résolution par email, sans cache
+            return userRepository.findByEmail(claims.getSubject())
+                    .filter(User::isEnabled)
+                    .map(AuthenticatedUser::of);
+        }
+
+        return loadUser(UUID.fromString(uuidClaim))
+                .filter(User::isEnabled)
+                .map(AuthenticatedUser::of);
+    }
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -49,13 +83,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = extractTokenFromHeader(request);
         if (token != null) {
             try {
-                String email = jwtTokenService.extractEmail(token);
-                Optional<User> userOpt = userRepository.findByEmail(email);
+                Claims claims = jwtTokenService.extractAllClaims(token);
+                if (tokenRevocationService.isRevoked(token, claims)) {
+                    writeUnauthorizedResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "TOKEN_REVOKED", "Le token JWT a été révoqué.");
+                    return;
+                }
+                Optional<AuthenticatedUser> principalOpt = resolvePrincipal(claims);
 
-                if (userOpt.isPresent()) {
-                    User user = userOpt.get();
+                if (principalOpt.isPresent()) {
+                    AuthenticatedUser principal = principalOpt.get();
                     UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             } catch (ExpiredJwtException e) {
@@ -80,4 +118,3 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         objectMapper.writeValue(response.getOutputStream(), errorResponse);
     }
 }
-
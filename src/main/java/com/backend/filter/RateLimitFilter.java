@@ -0,0 +1,225 @@
+package com.backend.filter;
+
+import com.backend.dto.common.ErrorResponse;
+import com.backend.enums.RateLimitRoute;
+import com.backend.security.RateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Limitation de débit placée avant JwtAuthenticationFilter :
+ * routes d'auth coûteuses (BCrypt, SMTP), disponibilité des identifiants et catalogue public.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Les corps des requêtes d'auth sont petits : au-delà on ne lit pas le compte
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper, List<String> trustedProxies) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.trustedProxies = trustedProxies.stream()
+                .filter(proxy -> !proxy.isBlank())
+                .map(proxy -> new IpAddressMatcher(proxy.trim()))
+                .toList();
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) return true;
+            } catch (IllegalArgumentException e) {
+                return false; // adresse illisible : jamais de confiance
+            }
+        }
+        return false;
+    }
+
+    /**
+     * IP du client : derrière un proxy de confiance, la première adresse non fiable de
+     * X-Forwarded-For en partant de la droite (les entrées de gauche sont fournies par le client
+     * et falsifiables) ; sinon l'adresse de la connexion.
+     */
+    private String clientIp(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || !isTrustedProxy(remote)) {
+            return remote;
+        }
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !isTrustedProxy(hop)) {
+                return hop;
+            }
+        }
+        return remote;
+    }
+
+    private RateLimitRoute resolveRoute(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        if ("POST".equals(method)) {
+            return switch (path) {
+                case "/api/auth/login" -> RateLimitRoute.LOGIN;
+                case "/api/auth/register" -> RateLimitRoute.REGISTER;
+                case "/api/auth/forgot-password" -> RateLimitRoute.PASSWORD_RESET;
+                case "/api/auth/resend-verification" -> RateLimitRoute.VERIFICATION;
+                default -> null;
+            };
+        }
+        if ("GET".equals(method) && path.equals("/api/auth/availability")) {
+            return RateLimitRoute.AVAILABILITY;
+        }
+        if ("GET".equals(method)
+                && (path.startsWith("/api/document/") || path.equals("/api/document")
+                || path.startsWith("/api/category/") || path.equals("/api/category"))) {
+            return RateLimitRoute.CATALOG;
+        }
+        return null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RateLimitRoute route = rateLimiter.isEnabled() ? resolveRoute(request) : null;
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest effectiveRequest = request;
+        String ipKey = "ip:" + clientIp(request);
+        Duration retryAfter;
+
+        long contentLength = request.getContentLengthLong();
+        if (route.isPerAccount() && contentLength >= 0 && contentLength <= MAX_BODY_BYTES) {
+            CachedBodyRequest cached = new CachedBodyRequest(request);
+            effectiveRequest = cached;
+            String account = extractAccount(cached.body);
+            retryAfter = account != null
+                    ? rateLimiter.tryAcquire(route, ipKey, "account:" + account)
+                    : rateLimiter.tryAcquire(route, ipKey);
+        } else {
+            retryAfter = rateLimiter.tryAcquire(route, ipKey);
+        }
+
+        if (!retryAfter.isZero()) {
+            writeTooManyRequests(response, retryAfter);
+            return;
+        }
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    // ✅ Email ou nom d'utilisateur du corps JSON, normalisé
+    private String extractAccount(byte[] body) {
+        if (body.length == 0) return null;
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            JsonNode account = json.hasNonNull("email") ? json.get("email") : json.get("username");
+            if (account == null || !account.isTextual() || account.asText().isBlank()) {
+                return null;
+            }
+            return account.asText().trim().toLowerCase();
+        } catch (IOException e) {
+            return null; // corps invalide : la validation du contrôleur répondra
+        }
+    }
+
+    private void writeTooManyRequests(HttpServletResponse response, Duration retryAfter) throws IOException {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Trop de requêtes",
+                "TOO_MANY_REQUESTS",
+                "Limite de requêtes atteinte, réessayez dans " + seconds + " seconde(s)."
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType("application/json;charset=UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    /**
+     * Requête dont le corps est lu une fois puis rejoué pour le contrôleur.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readNBytes(MAX_BODY_BYTES);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Corps déjà en mémoire : tout est lisible immédiatement
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.backend.mapper;
 
 import com.backend.dto.category.CategoryResponse;
 import com.backend.model.Category;
+import com.backend.repository.projection.CategoryNodeView;
 
 import java.util.List;
 import java.util.Set;
@@ -25,9 +26,9 @@ public class CategoryMapper {
                 .name(category.getName())
                 .description(category.getDescription())
                 .slug(category.getSlug())
-                .count(category.getDocuments() != null
-                        ? category.getDocuments().size()
-                        : 0)
+                .count(category.getDocumentCount())
+                .totalCount(category.getSubtreeDocumentCount())
+                .hasChildren(category.isHasChildren())
                 .parent(
                         includeParent && category.getParent() != null
                                 ? toShallowCategoryResponse(category.getParent())
@@ -43,6 +44,16 @@ public class CategoryMapper {
                 .build();
     }
 
+    public static CategoryResponse toShallowCategoryResponse(CategoryNodeView row) {
+        if (row == null) return null;
+
+        return CategoryResponse.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .slug(row.getSlug())
+                .build();
+    }
+
     private static CategoryResponse toShallowCategoryResponse(Category category) {
         if (category == null) return null;
 
@@ -0,0 +1,40 @@
+package com.backend.mapper;
+
+import com.backend.dto.digest.DigestRunResponse;
+import com.backend.model.DigestRun;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class DigestRunMapper {
+    static public DigestRunResponse toResponse(DigestRun run) {
+        long processed = run.getSentCount() + run.getFailedCount();
+        LocalDateTime end = run.getFinishedAt() != null ? run.getFinishedAt() : run.getUpdatedAt();
+        double seconds = run.getStartedAt() == null || end == null
+                ? 0
+                : Duration.between(run.getStartedAt(), end).toMillis() / 1000.0;
+
+        return DigestRunResponse.builder()
+                .id(run.getId())
+                .status(run.getStatus())
+                .windowStart(run.getWindowStart())
+                .windowEnd(run.getWindowEnd())
+                .documentCount(run.getDocumentCount())
+                .totalRecipients(run.getTotalRecipients())
+                .sentCount(run.getSentCount())
+                .failedCount(run.getFailedCount())
+                .progressPercent(run.getTotalRecipients() == 0
+                        ? 100
+                        : Math.min(100, 100.0 * processed / run.getTotalRecipients()))
+                .messagesPerSecond(seconds > 0 ? processed / seconds : 0)
+                .startedAt(run.getStartedAt())
+                .updatedAt(run.getUpdatedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+    }
+
+    static public List<DigestRunResponse> toResponseList(List<DigestRun> runs) {
+        return runs.stream().map(DigestRunMapper::toResponse).toList();
+    }
+}
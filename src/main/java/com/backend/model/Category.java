@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -18,22 +19,62 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "categories")
+// Unicité du nom et du slug parmi les catégories visibles : index uniques partiels
+// uk_categories_name / uk_categories_slug (WHERE deleted_at IS NULL, cf. SchemaMigrationRunner)
+@Table(
+        name = "categories",
+        indexes = {
+                @Index(name = "idx_categories_parent_id", columnList = "parent_id"),
+                @Index(name = "idx_categories_parent_position", columnList = "parent_id, position")
+        }
+)
 public class Category {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String name;
 
     @Column(nullable = false, length = 5000)
     private String description;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String slug;
 
+    // Longueur maximale du chemin : borne la profondeur de l'arbre (une centaine de niveaux
+    // avec des ids à 6 chiffres), en deçà de la taille maximale d'une entrée d'index B-tree
+    public static final int MAX_PATH_LENGTH = 2000;
+
+    // 🧭 Chemin matérialisé des ids depuis la racine, ex. "/1/5/12/" : un sous-arbre est un préfixe
+    // (index text_pattern_ops, cf. SchemaMigrationRunner). Renseigné juste après l'insertion.
+    @Column(length = MAX_PATH_LENGTH)
+    private String path;
+
+    // 🔢 Ordre pédagogique parmi les frères : clé fractionnaire (OrderKey), comparée octet par octet.
+    // Déplacer une catégorie ne réécrit que sa ligne ; MaintenanceService rééquilibre les clés trop longues.
+    @Column(columnDefinition = "varchar(255) collate \"C\"")
+    private String position;
+
+    // 🔢 Compteurs de documents (directs / sous-arbre compris), tenus à jour par des UPDATE atomiques
+    // (CategoryRepository) : jamais écrits depuis l'entité, pour ne pas écraser un incrément concurrent
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer not null default 0")
+    private int documentCount;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer not null default 0")
+    private int subtreeDocumentCount;
+
+    // 🗑️ Suppression logique : tout le sous-arbre est masqué d'un coup, puis purgé en arrière-plan
+    // (CategoryPurgeService). Écrit uniquement par UPDATE ensembliste.
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    // 🌿 Sous-catégories visibles : EXISTS évalué dans le SELECT de la catégorie (index idx_categories_parent_id),
+    // sans charger la collection children
+    @Formula("exists(select 1 from categories c where c.parent_id = id and c.deleted_at is null)")
+    private boolean hasChildren;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
     @JsonBackReference
@@ -0,0 +1,69 @@
+package com.backend.model;
+
+import com.backend.enums.DigestRunStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Envoi du digest "nouveaux documents" : fenêtre couverte, point de reprise et compteurs.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "digest_runs",
+        indexes = @Index(name = "idx_digest_runs_status", columnList = "status")
+)
+public class DigestRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DigestRunStatus status = DigestRunStatus.RUNNING;
+
+    // 📅 Documents créés dans [windowStart, windowEnd)
+    @Column(nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(nullable = false)
+    private LocalDateTime windowEnd;
+
+    @Column(nullable = false)
+    private int documentCount;
+
+    @Column(nullable = false)
+    private long totalRecipients;
+
+    // 🔖 Point de reprise : dernier id utilisateur traité (parcours par id croissant)
+    @Builder.Default
+    @Column(nullable = false)
+    private long lastUserId = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long sentCount = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long failedCount = 0;
+
+    @CreationTimestamp
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime startedAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+}
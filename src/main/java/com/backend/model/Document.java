@@ -13,20 +13,25 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "documents")
+// Unicité du nom et du slug parmi les documents visibles : index uniques partiels
+// uk_documents_name / uk_documents_slug (WHERE deleted_at IS NULL, cf. SchemaMigrationRunner)
+@Table(
+        name = "documents",
+        indexes = @Index(name = "idx_documents_category_position", columnList = "category_id, position")
+)
 public class Document {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String name;
 
     @Column(nullable = false, length = 5000)
     private String description;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String slug;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,6 +42,14 @@ public class Document {
     @Column(nullable = false)
     private String urlPdf;
 
+    // 🗑️ Masqué avec le sous-arbre de sa catégorie (CategoryService.deleteCategory) ; écrit par UPDATE ensembliste
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    // 🔢 Ordre pédagogique dans la catégorie (clé fractionnaire, cf. OrderKey)
+    @Column(columnDefinition = "varchar(255) collate \"C\"")
+    private String position;
+
     @CreationTimestamp
     @Column(updatable = false, nullable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,61 @@
+package com.backend.model;
+
+import com.backend.enums.MailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "mail_outbox",
+        indexes = {
+                @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_mail_outbox_created_at", columnList = "created_at")
+        }
+)
+public class MailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(columnDefinition = "text")
+    private String bodyHtml;
+
+    @Column(columnDefinition = "text")
+    private String bodyText;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // ⏱️ Prochaine tentative ; repoussée de la durée du bail quand une ligne est réclamée
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime sentAt;
+
+    @CreationTimestamp
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -3,6 +3,7 @@ package com.backend.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -26,8 +27,12 @@ public class Progression {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Les listes ne chargent que les documents visibles (deleted_at sur documents, cf. CategoryService.deleteCategory) :
+    // les liens vers un document masqué restent en base jusqu'à la purge
+
     // 📘 Documents en cours
     @ManyToMany
+    @SQLRestriction("deleted_at is null")
     @JoinTable(
             name = "progression_in_progress",
             joinColumns = @JoinColumn(name = "progression_id"),
@@ -38,6 +43,7 @@ public class Progression {
 
     // ✅ Documents terminés
     @ManyToMany
+    @SQLRestriction("deleted_at is null")
     @JoinTable(
             name = "progression_complete",
             joinColumns = @JoinColumn(name = "progression_id"),
@@ -48,6 +54,7 @@ public class Progression {
 
     // ⭐ Documents favoris
     @ManyToMany
+    @SQLRestriction("deleted_at is null")
     @JoinTable(
             name = "progression_favorites",
             joinColumns = @JoinColumn(name = "progression_id"),
@@ -13,15 +13,24 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "tokens_checkout")
+@Table(
+        name = "tokens_checkout",
+        uniqueConstraints = @UniqueConstraint(name = "uk_tokens_checkout_token_hash", columnNames = "token_hash"),
+        indexes = {
+                @Index(name = "idx_tokens_checkout_user_type_used", columnList = "user_id, type, used"),
+                @Index(name = "idx_tokens_checkout_expires_at", columnList = "expires_at")
+        }
+)
 public class TokenCheckout {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // 🔑 Empreinte SHA-256 (32 octets) du token : le JWT lui-même n'est jamais stocké.
+    // NOT NULL posé par SchemaMigrationRunner après le backfill des anciennes lignes.
+    @Column(name = "token_hash", length = 32)
+    private byte[] tokenHash;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 40)
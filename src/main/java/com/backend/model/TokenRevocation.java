@@ -0,0 +1,36 @@
+package com.backend.model;
+
+import com.backend.enums.RevocationType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "token_revocations",
+        indexes = @Index(name = "idx_token_revocations_key", columnList = "type, revocation_key")
+)
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RevocationType type;
+
+    // 🔑 Empreinte SHA-256 (hex) du token, ou uuid de l'utilisateur
+    @Column(name = "revocation_key", nullable = false, length = 64)
+    private String revocationKey;
+
+    @CreationTimestamp
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -1,9 +1,14 @@
 package com.backend.repository;
 
 import com.backend.model.Category;
+import com.backend.repository.projection.CategoryNodeView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -13,6 +18,13 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     // 🔍 Trouver une catégorie par son slug
     Optional<Category> findBySlug(String slug);
 
+    // 🔍 Catégorie non supprimée (les lectures et rattachements ignorent les sous-arbres en cours de purge)
+    @Query("select c from Category c where c.slug = :slug and c.deletedAt is null")
+    Optional<Category> findVisibleBySlug(@Param("slug") String slug);
+
+    @Query("select c from Category c where c.id = :id and c.deletedAt is null")
+    Optional<Category> findVisibleById(@Param("id") Long id);
+
     // 🔍 Trouver une catégorie par son nom (utile pour éviter doublons)
     Optional<Category> findByName(String name);
 
@@ -22,6 +34,78 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     // 📁 Liste les catégories racines (sans parent)
     Set<Category> findByParentIsNull();
 
+    // 🌳 Toute la hiérarchie à plat (liste d'adjacence), assemblée en mémoire
+    @Query("""
+            select c.id as id, c.parent.id as parentId, c.name as name,
+                   c.slug as slug, c.description as description,
+                   c.documentCount as documentCount, c.subtreeDocumentCount as subtreeDocumentCount
+            from Category c
+            where c.deletedAt is null
+            order by c.position, c.id
+            """)
+    List<CategoryNodeView> findAllNodes();
+
+    // 🔢 Dernière clé d'ordre parmi les frères (index parent_id, position) : un ajout se place après
+    @Query("select max(c.position) from Category c where c.parent.id = :parentId and c.deletedAt is null")
+    String findLastChildPosition(@Param("parentId") Long parentId);
+
+    @Query("select max(c.position) from Category c where c.parent is null and c.deletedAt is null")
+    String findLastRootPosition();
+
+    // 🧭 La catégorie et ses ancêtres (racine d'abord) : ids lus dans son chemin, une requête sur la clé primaire
+    @Query(value = """
+            select a.id as "id", a.parent_id as "parentId", a.name as "name",
+                   a.slug as "slug", a.description as "description",
+                   a.document_count as "documentCount", a.subtree_document_count as "subtreeDocumentCount"
+            from categories c
+            join categories a on a.id = any (cast(string_to_array(trim(both '/' from c.path), '/') as bigint[]))
+            where c.slug = :slug and c.deleted_at is null
+            order by length(a.path)
+            """, nativeQuery = true)
+    List<CategoryNodeView> findPathBySlug(@Param("slug") String slug);
+
+    // 🔢 Compteurs : la catégorie (direct) et tous ses ancêtres (sous-arbre), en une instruction.
+    // Le contexte de persistance est vidé : les entités relues ensuite portent les nouveaux compteurs.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            update categories
+            set subtree_document_count = subtree_document_count + :delta,
+                document_count = document_count + case when id = :categoryId then :delta else 0 end
+            where id = any (cast(string_to_array(trim(both '/' from :path), '/') as bigint[]))
+            """, nativeQuery = true)
+    int addDocuments(@Param("categoryId") Long categoryId, @Param("path") String path, @Param("delta") int delta);
+
+    // 🔢 Ancêtres d'une catégorie supprimée avec ses documents : son compteur est lu et verrouillé
+    // dans la même instruction (pas la valeur de l'entité, éventuellement périmée)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            with removed as (
+                select subtree_document_count as n from categories where id = :categoryId for update
+            )
+            update categories
+            set subtree_document_count = subtree_document_count - (select n from removed)
+            where id = any (cast(string_to_array(trim(both '/' from :parentPath), '/') as bigint[]))
+            """, nativeQuery = true)
+    int removeSubtreeDocuments(@Param("categoryId") Long categoryId, @Param("parentPath") String parentPath);
+
+    // 🗑️ Masque tout le sous-arbre (préfixe du chemin indexé) ; updated_at signale le changement au catalogue
+    @Modifying
+    @Query(value = """
+            update categories
+            set deleted_at = now(), updated_at = now()
+            where path like concat(:path, '%') and deleted_at is null
+            """, nativeQuery = true)
+    int softDeleteTree(@Param("path") String path);
+
+    // 🔖 Empreinte du catalogue (volumes + dernières modifications) : change à chaque écriture
+    @Query(value = """
+            select (select count(*) from categories)
+                   || ':' || coalesce((select max(updated_at) from categories)::text, '')
+                   || ':' || (select count(*) from documents)
+                   || ':' || coalesce((select max(updated_at) from documents)::text, '')
+            """, nativeQuery = true)
+    String findCatalogVersion();
+
     // ⚡ Vérifie existence par nom ou slug
     boolean existsByName(String name);
     boolean existsBySlug(String slug);
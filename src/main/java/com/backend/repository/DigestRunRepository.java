@@ -0,0 +1,18 @@
+package com.backend.repository;
+
+import com.backend.enums.DigestRunStatus;
+import com.backend.model.DigestRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface DigestRunRepository extends JpaRepository<DigestRun, Long> {
+
+    Optional<DigestRun> findFirstByStatusOrderByStartedAtDesc(DigestRunStatus status);
+
+    Optional<DigestRun> findFirstByStatusOrderByWindowEndDesc(DigestRunStatus status);
+
+    List<DigestRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+}
@@ -3,26 +3,81 @@ package com.backend.repository;
 import com.backend.model.Document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Les lectures renvoyées à l'API chargent la catégorie dans la même requête (@EntityGraph) :
+ * DocumentMapper la lit pour chaque document.
+ */
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
 
     // 🔍 Trouver un document par son slug
     Optional<Document> findBySlug(String slug);
 
+    // 🔍 Document visible : sa catégorie n'est pas en cours de suppression
+    @EntityGraph(attributePaths = "category")
+    @Query("select d from Document d where d.slug = :slug and d.category.deletedAt is null")
+    Optional<Document> findVisibleBySlug(@Param("slug") String slug);
+
     // 🔍 Trouver un document par son nom
     Optional<Document> findByName(String name);
 
     // 📚 Liste tous les documents d’une catégorie donnée
     List<Document> findByCategory_Id(Long categoryId);
+    @EntityGraph(attributePaths = "category")
     Page<Document> findByCategory_Id(Long categoryId, Pageable pageable);
+
+    // 🗑️ Masque les documents d'un sous-arbre supprimé : ils libèrent leur nom et leur slug
+    @Modifying
+    @Query(value = """
+            update documents
+            set deleted_at = now(), updated_at = now()
+            where deleted_at is null
+              and category_id in (select id from categories where path like concat(:path, '%'))
+            """, nativeQuery = true)
+    int softDeleteInTree(@Param("path") String path);
+
+    // 🔢 Dernière clé d'ordre de la catégorie (index category_id, position)
+    @Query("select max(d.position) from Document d where d.category.id = :categoryId")
+    String findLastPosition(@Param("categoryId") Long categoryId);
+
+    // 🌳 Documents d'une catégorie et de tous ses descendants (préfixe du chemin matérialisé)
+    @EntityGraph(attributePaths = "category")
+    @Query(value = """
+            select d from Document d
+            where d.category.path like concat(:pathPrefix, '%') and d.category.deletedAt is null
+            """,
+            countQuery = """
+            select count(d) from Document d
+            where d.category.path like concat(:pathPrefix, '%') and d.category.deletedAt is null
+            """)
+    Page<Document> findInCategoryTree(@Param("pathPrefix") String pathPrefix, Pageable pageable);
     // ⚡ Vérifie existence par nom ou slug
     boolean existsByName(String name);
     boolean existsBySlug(String slug);
-    List<Document> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    @EntityGraph(attributePaths = "category")
+    @Query("select d from Document d where d.category.deletedAt is null order by d.createdAt desc")
+    List<Document> findVisibleOrderByCreatedAtDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select d from Document d where d.category.deletedAt is null")
+    List<Document> findAllVisible();
+
+    // 📰 Documents d'une fenêtre du digest
+    @Query("""
+            select d from Document d
+            where d.createdAt >= :from and d.createdAt < :to and d.category.deletedAt is null
+            order by d.createdAt desc
+            """)
+    List<Document> findCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
 }
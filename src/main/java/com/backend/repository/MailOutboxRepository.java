@@ -0,0 +1,46 @@
+package com.backend.repository;
+
+import com.backend.enums.MailOutboxStatus;
+import com.backend.model.MailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    // 🔒 SELECT ... FOR UPDATE SKIP LOCKED (timeout -2 = LockOptions.SKIP_LOCKED) :
+    // chaque nœud réclame des lignes différentes sans s'attendre
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select m from MailOutbox m where m.status = :status and m.nextAttemptAt <= :now order by m.nextAttemptAt")
+    List<MailOutbox> claimDue(@Param("status") MailOutboxStatus status,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+
+    long countByStatus(MailOutboxStatus status);
+
+    // 🔐 Le corps (liens de vérification / réinitialisation avec token) n'est plus conservé une fois traité :
+    // seules les métadonnées restent jusqu'à la purge
+    @Transactional
+    @Modifying
+    @Query("update MailOutbox m set m.status = com.backend.enums.MailOutboxStatus.SENT, m.sentAt = :sentAt, m.lastError = null, m.bodyHtml = null, m.bodyText = null where m.id = :id")
+    void markSent(@Param("id") Long id, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("update MailOutbox m set m.nextAttemptAt = :nextAttemptAt, m.lastError = :error where m.id = :id")
+    void reschedule(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("update MailOutbox m set m.status = com.backend.enums.MailOutboxStatus.FAILED, m.lastError = :error, m.bodyHtml = null, m.bodyText = null where m.id = :id")
+    void markFailed(@Param("id") Long id, @Param("error") String error);
+}
@@ -9,9 +9,10 @@ import java.util.Optional;
 
 public interface TokenCheckoutRepository extends JpaRepository<TokenCheckout, Long> {
 
-    Optional<TokenCheckout> findByToken(String token);
+    Optional<TokenCheckout> findByTokenHash(byte[] tokenHash);
 
-    Optional<TokenCheckout> findByUserAndType(User user, TokenType type);
+    // ⚡ Servi par l'index (user_id, type, used)
+    Optional<TokenCheckout> findFirstByUserAndTypeAndUsedFalseOrderByCreatedAtDesc(User user, TokenType type);
 
     void deleteByUser(User user);
 }
@@ -0,0 +1,33 @@
+package com.backend.repository;
+
+import com.backend.enums.RevocationType;
+import com.backend.model.TokenRevocation;
+import com.backend.repository.projection.RevocationKeyView;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    // 📥 Toutes les clés révoquées (reconstruction du filtre de Bloom au démarrage)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select r.type as type, r.revocationKey as revocationKey from TokenRevocation r")
+    Stream<RevocationKeyView> streamAllKeys();
+
+    // 🔁 Clés révoquées depuis la dernière synchronisation (autres instances)
+    List<RevocationKeyView> findByRevokedAtAfter(LocalDateTime since);
+
+    boolean existsByTypeAndRevocationKey(RevocationType type, String revocationKey);
+
+    @Query("select max(r.revokedAt) from TokenRevocation r where r.type = :type and r.revocationKey = :key")
+    Optional<LocalDateTime> findLatestRevokedAt(@Param("type") RevocationType type, @Param("key") String key);
+}
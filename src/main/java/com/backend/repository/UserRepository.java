@@ -2,10 +2,23 @@ package com.backend.repository;
 
 
 import com.backend.model.User;
+import com.backend.repository.projection.DigestRecipientView;
+import com.backend.repository.projection.UserIdentityView;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
@@ -19,5 +32,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);
 
+    // 📥 Identifiants de tous les utilisateurs (construction du filtre de disponibilité)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username as username, u.email as email from User u")
+    Stream<UserIdentityView> streamAllIdentities();
+
+    // 🔁 Identifiants créés ou modifiés depuis la dernière synchronisation (index idx_users_updated_at)
+    @Query("select u.username as username, u.email as email from User u where u.updatedAt > :since")
+    List<UserIdentityView> findIdentitiesUpdatedAfter(@Param("since") LocalDateTime since);
+
+    // 🔎 Recherches normalisées (index uniques uk_users_lower_email / uk_users_lower_username)
+    @Query("select count(u) > 0 from User u where lower(u.email) = :email")
+    boolean existsByNormalizedEmail(@Param("email") String email);
+
+    @Query("select count(u) > 0 from User u where lower(u.username) = :username")
+    boolean existsByNormalizedUsername(@Param("username") String username);
+
+    // 📨 Destinataires vérifiés par id croissant (curseur serveur, reprise après afterId)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<DigestRecipientView> findByIsVerifiedTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    long countByIsVerifiedTrue();
 
+    // 🔁 Re-hachage à la connexion : réécrit le hash seulement s'il n'a pas changé depuis la lecture
+    @Modifying
+    @Query("update User u set u.password = :rehashed where u.id = :id and u.password = :previous")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("previous") String previous,
+                                  @Param("rehashed") String rehashed);
 }
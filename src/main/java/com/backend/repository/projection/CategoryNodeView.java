@@ -0,0 +1,17 @@
+package com.backend.repository.projection;
+
+public interface CategoryNodeView {
+    Long getId();
+
+    Long getParentId();
+
+    String getName();
+
+    String getSlug();
+
+    String getDescription();
+
+    int getDocumentCount();
+
+    int getSubtreeDocumentCount();
+}
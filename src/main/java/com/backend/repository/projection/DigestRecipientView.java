@@ -0,0 +1,9 @@
+package com.backend.repository.projection;
+
+public interface DigestRecipientView {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+}
@@ -0,0 +1,9 @@
+package com.backend.repository.projection;
+
+import com.backend.enums.RevocationType;
+
+public interface RevocationKeyView {
+    RevocationType getType();
+
+    String getRevocationKey();
+}
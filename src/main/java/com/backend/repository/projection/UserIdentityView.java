@@ -0,0 +1,7 @@
+package com.backend.repository.projection;
+
+public interface UserIdentityView {
+    String getUsername();
+
+    String getEmail();
+}
@@ -0,0 +1,70 @@
+package com.backend.security;
+
+import com.backend.enums.UserRole;
+import com.backend.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal des requêtes authentifiées : l'utilisateur courant, résolu par le filtre JWT
+ * via le cache des principaux (aucune requête en base sur un succès du cache).
+ */
+public class AuthenticatedUser implements Principal {
+
+    private final Long id;
+    private final UUID uuid;
+    private final String email;
+    private final UserRole role;
+    private final User user;
+
+    private AuthenticatedUser(User user) {
+        this.id = user.getId();
+        this.uuid = user.getUuid();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.user = user;
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role == null
+                ? List.of()
+                : List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    /**
+     * Entité User (détachée) résolue par le filtre.
+     */
+    public User getUser() {
+        return user;
+    }
+}
@@ -0,0 +1,80 @@
+package com.backend.security;
+
+import com.backend.config.AppProperties;
+import com.backend.model.User;
+import com.backend.util.ExpiringLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cache en mémoire des utilisateurs authentifiés, indexé par l'uuid du token.
+ * Évite une requête sur la table users à chaque requête authentifiée.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ExpiringLruCache<UUID, User> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public PrincipalCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.PrincipalCache config = appProperties.getSecurity().getPrincipalCache();
+        this.cache = new ExpiringLruCache<>(config.getMaxSize(), config.getTtl().toNanos());
+        this.hits = Counter.builder("auth.principal.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.principal.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("auth.principal.cache.evictions")
+                .register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", cache, ExpiringLruCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Renvoie l'utilisateur en cache, ou le charge via le loader (puis le met en cache).
+     */
+    public Optional<User> get(UUID uuid, Function<UUID, Optional<User>> loader) {
+        User cached = cache.get(uuid);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        Optional<User> loaded = loader.apply(uuid);
+        loaded.ifPresent(user -> cache.put(uuid, user));
+        return loaded;
+    }
+
+    public void evict(UUID uuid) {
+        if (uuid == null) return;
+        cache.invalidate(uuid);
+        evictions.increment();
+    }
+
+    /**
+     * Invalide l'entrée immédiatement puis une seconde fois après le commit,
+     * pour qu'une requête concurrente ne remette pas en cache l'ancienne version.
+     */
+    public void evictAfterCommit(UUID uuid) {
+        evict(uuid);
+        if (uuid != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(uuid);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.backend.security;
+
+import com.backend.config.AppProperties;
+import com.backend.enums.RateLimitRoute;
+import com.backend.util.ExpiringLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Limiteur de débit en mémoire : un seau à jetons par clé (IP, compte) et par route.
+ * Les seaux vivent dans un cache LRU borné (TTL glissant = idle-ttl) : un afflux de clés
+ * nouvelles évince en temps constant les seaux les moins récemment utilisés, sans jamais
+ * désactiver la limitation. Un seau évincé est recréé plein, comme un seau resté inactif.
+ */
+@Component
+public class RateLimiter {
+
+    private final AppProperties.RateLimit config;
+    private final ExpiringLruCache<String, TokenBucket> buckets;
+    private final Map<RateLimitRoute, AppProperties.Limit> limits = new EnumMap<>(RateLimitRoute.class);
+    private final Map<RateLimitRoute, Counter> allowed = new EnumMap<>(RateLimitRoute.class);
+    private final Map<RateLimitRoute, Counter> rejected = new EnumMap<>(RateLimitRoute.class);
+
+    public RateLimiter(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.config = appProperties.getRateLimit();
+        this.buckets = new ExpiringLruCache<>(config.getMaxBuckets(), config.getIdleTtl().toNanos());
+        for (RateLimitRoute route : RateLimitRoute.values()) {
+            AppProperties.Limit configured = config.getRoutes().get(route.configKey());
+            limits.put(route, new AppProperties.Limit(
+                    configured != null && configured.getCapacity() > 0
+                            ? configured.getCapacity()
+                            : route.getDefaultCapacity(),
+                    configured != null && configured.getRefillPeriod() != null
+                            ? configured.getRefillPeriod()
+                            : route.getDefaultRefillPeriod()
+            ));
+            allowed.put(route, Counter.builder("ratelimit.requests")
+                    .tag("route", route.configKey())
+                    .tag("outcome", "allowed")
+                    .register(meterRegistry));
+            rejected.put(route, Counter.builder("ratelimit.requests")
+                    .tag("route", route.configKey())
+                    .tag("outcome", "rejected")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("ratelimit.buckets", buckets, ExpiringLruCache::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Consomme un jeton pour chacune des clés, seulement si toutes en ont un :
+     * une clé refusée ne fait pas perdre de jeton aux autres (jetons déjà pris rendus).
+     * @return Duration.ZERO si la requête est acceptée, sinon le délai avant de réessayer.
+     */
+    public Duration tryAcquire(RateLimitRoute route, String... keys) {
+        AppProperties.Limit limit = limits.get(route);
+        long now = System.nanoTime();
+        TokenBucket[] selected = new TokenBucket[keys.length];
+        long wait = 0;
+        for (int i = 0; i < keys.length; i++) {
+            selected[i] = bucketFor(route, keys[i], limit, now);
+            wait = Math.max(wait, selected[i].waitNanos(now));
+        }
+        if (wait == 0) {
+            // Une requête concurrente peut avoir pris le dernier jeton entre-temps : on consomme pour de bon,
+            // et au premier refus on rend les jetons déjà pris aux seaux précédents
+            for (int i = 0; i < selected.length && wait == 0; i++) {
+                wait = selected[i].tryConsume(now);
+                if (wait > 0) {
+                    for (int j = 0; j < i; j++) {
+                        selected[j].refund();
+                    }
+                }
+            }
+        }
+        if (wait > 0) {
+            rejected.get(route).increment();
+            return Duration.ofNanos(wait);
+        }
+        allowed.get(route).increment();
+        return Duration.ZERO;
+    }
+
+    private TokenBucket bucketFor(RateLimitRoute route, String key, AppProperties.Limit limit, long now) {
+        return buckets.getOrCreate(route.name() + '|' + key,
+                k -> new TokenBucket(limit.getCapacity(), limit.getRefillPeriod().toNanos(), now));
+    }
+}
@@ -0,0 +1,61 @@
+package com.backend.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Seau à jetons sans verrou : l'état (jetons, date de remplissage) est
+ * remplacé atomiquement par compare-and-set.
+ */
+public class TokenBucket {
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(int capacity, long refillPeriodNanos, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / Math.max(1, refillPeriodNanos);
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Délai avant qu'un jeton soit disponible, sans rien consommer.
+     * @return 0 si un jeton est disponible maintenant.
+     */
+    public long waitNanos(long now) {
+        State current = state.get();
+        long at = Math.max(now, current.refilledAt());
+        double available = Math.min(capacity,
+                current.tokens() + (at - current.refilledAt()) * tokensPerNano);
+        return available < 1 ? (long) Math.ceil((1 - available) / tokensPerNano) : 0;
+    }
+
+    /**
+     * Tente de consommer un jeton.
+     * @return 0 si accepté, sinon le délai (en nanosecondes) avant le prochain jeton.
+     */
+    public long tryConsume(long now) {
+        while (true) {
+            State current = state.get();
+            long at = Math.max(now, current.refilledAt());
+            double available = Math.min(capacity,
+                    current.tokens() + (at - current.refilledAt()) * tokensPerNano);
+            if (available < 1) {
+                return (long) Math.ceil((1 - available) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(available - 1, at))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Rend un jeton consommé par {@link #tryConsume(long)} (sans dépasser la capacité).
+     */
+    public void refund() {
+        state.updateAndGet(current -> new State(Math.min(capacity, current.tokens() + 1), current.refilledAt()));
+    }
+}
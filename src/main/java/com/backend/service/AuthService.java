@@ -12,39 +12,46 @@ import com.backend.mapper.UserMapper;
 import com.backend.model.TokenCheckout;
 import com.backend.model.User;
 import com.backend.repository.UserRepository;
+import com.backend.security.PasswordHasher;
+import com.backend.security.PrincipalCache;
 import com.backend.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final MailService mailService;
     private final TokenCheckoutService tokenCheckoutService;
     private final AppProperties appProperties;
     private final JwtTokenService tokenService;
     private final ProgressionService progressionService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final AvailabilityService availabilityService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    // ⏳ Hachages BCrypt hors transaction : l'attente du pool de hachage et le calcul
+    // ne retiennent pas de connexion JDBC (pool Hikari partagé avec les lectures)
     public UserResponse register(RegisterUserRequest request){
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new EmailAlreadyExistsException(request.getEmail());
-        }
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new UsernameAlreadyExistsException(request.getUsername());
-        }
-        String hashPwd = passwordEncoder.encode(request.getPassword());
+        String hashPwd = passwordHasher.encode(request.getPassword());
+        return transactionTemplate.execute(status -> createUser(request, hashPwd));
+    }
+
+    private UserResponse createUser(RegisterUserRequest request, String hashPwd) {
+        // L'unicité email / nom d'utilisateur est garantie par les contraintes (cf. GlobalExceptionHandler)
         User user = UserMapper.toModel(request);
         user.setRole(UserRole.CLIENT);
         user.setPassword(hashPwd);
-        userRepository.save(user);
-        userRepository.flush();
+        userRepository.saveAndFlush(user);
+        availabilityService.recordAfterCommit(user.getUsername(), user.getEmail());
 
         String tokenVerificationEmail = tokenService.generateEmailVerificationToken(user.getEmail(), 15);
         tokenCheckoutService.createToken(user, TokenType.EMAIL_VERIFICATION, 15, tokenVerificationEmail);
@@ -63,7 +70,7 @@ public class AuthService {
                 verificationLink +
                 "\n\nSi vous n'êtes pas à l'origine de cette inscription, ignorez ce message.";
 
-        mailService.sendMail(
+        mailService.enqueueMail(
                 user.getEmail(),
                 "Confirmez votre compte Learn Arabic",
                 bodyHTML,
@@ -81,6 +88,7 @@ public class AuthService {
         }
         user.setVerified(true);
         userRepository.save(user);
+        principalCache.evictAfterCommit(user.getUuid());
         tokenCheckoutService.markAsUsed(tokenCheckout);
         progressionService.initProgression(user);
         UserResponse userResponse = UserMapper.toResponse(user);
@@ -88,12 +96,12 @@ public class AuthService {
         return AuthResponse.builder().user(userResponse).token(tokenAuth).build();
     }
 
-    @Transactional(readOnly = true)
     public AuthResponse login(LoginUserRequest request){
         if (request.getEmail() == null && request.getUsername() == null) {
             throw new BadRequestException("L'adresse e-mail ou le nom d'utilisateur est obligatoire");
         }
 
+        // Lecture dans la transaction courte du repository ; vérification sans transaction ouverte
         User user;
         if (request.getEmail() != null) {
             user = userRepository.findByEmail(request.getEmail())
@@ -105,9 +113,20 @@ public class AuthService {
         if (!user.isVerified()) {
             throw new AccountNotVerifiedException("Veuillez vérifier votre compte avant de vous connecter");
         }
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Mot de passe invalide");
         }
+        // 🔁 Hash produit avec un coût obsolète : re-hachage transparent, écrit à part
+        // (sauf si le mot de passe a changé entre-temps)
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            String rehashed = passwordHasher.encode(request.getPassword());
+            String previous = user.getPassword();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (userRepository.updatePasswordIfUnchanged(user.getId(), previous, rehashed) > 0) {
+                    principalCache.evictAfterCommit(user.getUuid());
+                }
+            });
+        }
         UserResponse userResponse = UserMapper.toResponse(user);
         String token = tokenService.generateAuthToken(userResponse);
 
@@ -126,6 +145,24 @@ public class AuthService {
                 .build();
     }
 
+    /**
+     * 🚪 Déconnexion : révoque le token courant.
+     */
+    @Transactional
+    public void logout(String currentToken) {
+        tokenRevocationService.revokeToken(currentToken);
+    }
+
+    /**
+     * 🚪 Déconnexion de tous les appareils : révoque tous les tokens de l'utilisateur.
+     */
+    @Transactional
+    public void logoutEverywhere() {
+        UUID uuid = SecurityUtil.getCurrentPrincipal().getUuid();
+        tokenRevocationService.revokeAllForUser(uuid);
+        principalCache.evictAfterCommit(uuid);
+    }
+
     @Transactional
     public void resetPassword(String email) {
         User user = userRepository.findByEmail(email)
@@ -154,7 +191,7 @@ public class AuthService {
                 "\n\nCe lien expirera dans 15 minutes." +
                 "\nSi vous n'êtes pas à l'origine de cette demande, ignorez ce message.";
 
-        mailService.sendMail(
+        mailService.enqueueMail(
                 user.getEmail(),
                 "Réinitialisation de votre mot de passe - OpenAcademy",
                 bodyHtml,
@@ -162,15 +199,23 @@ public class AuthService {
         );
     }
 
-    @Transactional
     public void confirmResetPassword(String token, String newPassword) {
+        // Jeton vérifié avant le hachage : un lien invalide ne coûte pas de BCrypt
+        tokenCheckoutService.validateToken(token, TokenType.PASSWORD_RESET);
+        String hashedPassword = passwordHasher.encode(newPassword);
+        transactionTemplate.executeWithoutResult(status -> applyNewPassword(token, hashedPassword));
+    }
+
+    private void applyNewPassword(String token, String hashedPassword) {
+        // Revérifié dans la transaction d'écriture : le jeton a pu servir pendant le hachage
         TokenCheckout tokenCheckout = tokenCheckoutService.validateToken(token, TokenType.PASSWORD_RESET);
         User user = tokenCheckout.getUser();
-
-        // Hash du nouveau mot de passe
-        String hashedPassword = passwordEncoder.encode(newPassword);
         user.setPassword(hashedPassword);
         userRepository.save(user);
+        principalCache.evictAfterCommit(user.getUuid());
+
+        // 🚪 Les anciennes sessions ne doivent plus être utilisables
+        tokenRevocationService.revokeAllForUser(user.getUuid());
 
         // Marquer le token comme utilisé
         tokenCheckoutService.markAsUsed(tokenCheckout);
@@ -210,7 +255,7 @@ public class AuthService {
                     verificationLink +
                     "\n\nCe lien expirera dans 15 minutes.";
 
-            mailService.sendMail(
+            mailService.enqueueMail(
                     user.getEmail(),
                     "Nouveau lien de vérification - Learn Arabic",
                     bodyHTML,
@@ -238,7 +283,7 @@ public class AuthService {
                     resetLink +
                     "\n\nCe lien expirera dans 15 minutes.";
 
-            mailService.sendMail(
+            mailService.enqueueMail(
                     user.getEmail(),
                     "Nouveau lien de réinitialisation du mot de passe - Learn Arabic",
                     bodyHTML,
@@ -0,0 +1,140 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import com.backend.dto.auth.AvailabilityResponse;
+import com.backend.repository.UserRepository;
+import com.backend.repository.projection.UserIdentityView;
+import com.backend.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Disponibilité des noms d'utilisateur et emails pour le formulaire d'inscription.
+ * Un filtre de Bloom des identifiants normalisés répond "libre" sans requête ;
+ * seuls les positifs (éventuellement faux) sont confirmés par une requête indexée.
+ */
+@Slf4j
+@Service
+public class AvailabilityService {
+
+    private final UserRepository userRepository;
+    private final AppProperties.Availability config;
+    private final Counter filterHits;
+    private final Counter databaseChecks;
+
+    private volatile BloomFilter bloomFilter;
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    public AvailabilityService(UserRepository userRepository, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.config = appProperties.getSecurity().getAvailability();
+        this.bloomFilter = new BloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate());
+        this.filterHits = Counter.builder("auth.availability.checks").tag("source", "filter").register(meterRegistry);
+        this.databaseChecks = Counter.builder("auth.availability.checks").tag("source", "database").register(meterRegistry);
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String usernameKey(String username) {
+        return "u:" + normalize(username);
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + normalize(email);
+    }
+
+    /**
+     * 🚀 Construit le filtre en parcourant les utilisateurs au démarrage.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        long count = userRepository.count();
+        BloomFilter rebuilt = new BloomFilter(
+                Math.max(config.getExpectedInsertions(), count * 4),
+                config.getFalsePositiveRate()
+        );
+        try (Stream<UserIdentityView> identities = userRepository.streamAllIdentities()) {
+            identities.forEach(identity -> put(rebuilt, identity.getUsername(), identity.getEmail()));
+        }
+        this.bloomFilter = rebuilt;
+        this.lastSync = syncStart;
+        log.info("Filtre de disponibilité construit : {} utilisateurs, {} octets", count, rebuilt.sizeInBytes());
+    }
+
+    /**
+     * 🔁 Intègre les inscriptions et changements de pseudo des autres instances.
+     */
+    @Scheduled(fixedDelayString = "${app.security.availability.refresh-interval:PT1M}")
+    public void refresh() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        // Petit recouvrement pour ne pas manquer une transaction commitée tardivement
+        for (UserIdentityView identity : userRepository.findIdentitiesUpdatedAfter(lastSync.minusSeconds(30))) {
+            put(bloomFilter, identity.getUsername(), identity.getEmail());
+        }
+        lastSync = syncStart;
+    }
+
+    /**
+     * ✅ Ajoute un identifiant au filtre une fois la transaction validée
+     * (inscription, changement de nom d'utilisateur).
+     */
+    public void recordAfterCommit(String username, String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(bloomFilter, username, email);
+                }
+            });
+        } else {
+            put(bloomFilter, username, email);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public AvailabilityResponse check(String username, String email) {
+        return AvailabilityResponse.builder()
+                .usernameAvailable(username == null ? null : isUsernameAvailable(username))
+                .emailAvailable(email == null ? null : isEmailAvailable(email))
+                .build();
+    }
+
+    private boolean isUsernameAvailable(String username) {
+        if (!bloomFilter.mightContain(usernameKey(username))) {
+            filterHits.increment();
+            return true;
+        }
+        databaseChecks.increment();
+        return !userRepository.existsByNormalizedUsername(normalize(username));
+    }
+
+    private boolean isEmailAvailable(String email) {
+        if (!bloomFilter.mightContain(emailKey(email))) {
+            filterHits.increment();
+            return true;
+        }
+        databaseChecks.increment();
+        return !userRepository.existsByNormalizedEmail(normalize(email));
+    }
+
+    private static void put(BloomFilter filter, String username, String email) {
+        if (username != null) filter.put(usernameKey(username));
+        if (email != null) filter.put(emailKey(email));
+    }
+}
@@ -0,0 +1,155 @@
+package com.backend.service;
+
+import com.backend.event.CatalogChangedEvent;
+import com.backend.repository.CategoryRepository;
+import com.backend.repository.projection.CategoryNodeView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 📚 Détient la photographie courante du catalogue.
+ * Les lectures ne prennent aucun verrou et ne touchent pas la base ; les écritures
+ * (catégorie ou document) programment après le commit une reconstruction complète,
+ * regroupée et exécutée hors du thread de la requête, puis un échange atomique de la référence.
+ * Les autres instances rattrapent les changements en comparant périodiquement l'empreinte du catalogue.
+ */
+@Slf4j
+@Component
+public class CategoryCatalog {
+
+    private record Versioned(CategorySnapshot snapshot, String version) {
+    }
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readTransaction;
+    private final AtomicReference<Versioned> current = new AtomicReference<>();
+    private final Timer rebuildTimer;
+
+    // Reconstructions demandées par les écritures : une seule en attente à la fois
+    private final ScheduledExecutorService rebuilder;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final Duration rebuildDelay;
+
+    public CategoryCatalog(CategoryRepository categoryRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.catalog.rebuild-delay:PT0.2S}") Duration rebuildDelay) {
+        this.categoryRepository = categoryRepository;
+        this.rebuildDelay = rebuildDelay;
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Nouvelle transaction : appelé aussi depuis AFTER_COMMIT, où l'ancienne est déjà terminée
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.rebuildTimer = Timer.builder("catalog.snapshot.rebuild")
+                .description("Lecture et construction de la photographie du catalogue")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.nodes", current, ref -> ref.get() == null ? 0 : ref.get().snapshot().size())
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.bytes", current,
+                        ref -> ref.get() == null ? 0 : ref.get().snapshot().estimatedBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Photographie courante, construite à la demande si le démarrage ne l'a pas encore fait.
+     */
+    public CategorySnapshot snapshot() {
+        Versioned versioned = current.get();
+        return versioned != null ? versioned.snapshot() : rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    /**
+     * ⚡ Écriture validée sur ce nœud : reconstruction programmée après rebuild-delay, hors du thread
+     * de la requête. Les écritures arrivées entre-temps (import, rafale d'envois) sont regroupées
+     * dans la même reconstruction ; celles arrivées pendant une reconstruction en programment une autre.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return; // déjà programmée
+        }
+        rebuilder.schedule(() -> {
+            rebuildPending.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                // L'ancienne photographie reste servie ; la vérification périodique réessaiera
+                log.error("❌ Reconstruction du catalogue échouée ({})", event.reason(), e);
+            }
+        }, rebuildDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 🔁 Rattrape les écritures faites par les autres instances.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval:PT30S}")
+    public void refreshIfStale() {
+        Versioned versioned = current.get();
+        if (versioned == null) return;
+        String version = readTransaction.execute(status -> categoryRepository.findCatalogVersion());
+        if (!Objects.equals(version, versioned.version())) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Relit le catalogue (une requête ensembliste + empreinte, dans une même transaction)
+     * et remplace la photographie. Sérialisé : une seule reconstruction à la fois.
+     */
+    public synchronized CategorySnapshot rebuild() {
+        long start = System.nanoTime();
+        Versioned rebuilt = readTransaction.execute(status -> {
+            String version = categoryRepository.findCatalogVersion();
+            List<CategoryNodeView> rows = categoryRepository.findAllNodes();
+            return new Versioned(CategorySnapshot.build(rows), version);
+        });
+        current.set(rebuilt);
+        long elapsed = System.nanoTime() - start;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        CategorySnapshot snapshot = rebuilt.snapshot();
+        log.info("📚 Catalogue reconstruit : {} catégories, ~{} Ko, {} ms (dont assemblage {} ms)",
+                snapshot.size(), snapshot.estimatedBytes() / 1024,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), TimeUnit.NANOSECONDS.toMillis(snapshot.getBuildNanos()));
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
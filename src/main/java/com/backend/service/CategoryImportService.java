@@ -0,0 +1,357 @@
+package com.backend.service;
+
+import com.backend.dto.category.ImportCategoriesRequest;
+import com.backend.dto.category.ImportCategoriesResponse;
+import com.backend.dto.category.ImportCategoryNode;
+import com.backend.dto.category.ImportCategoryResult;
+import com.backend.enums.CategoryImportStatus;
+import com.backend.event.CatalogChangedEvent;
+import com.backend.exception.BadRequestException;
+import com.backend.model.Category;
+import com.backend.util.CsvUtil;
+import com.backend.util.OrderKey;
+import com.backend.util.SlugUtil;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 📥 Import d'un arbre de catégories en une seule transaction.
+ * Noms et slugs sont validés en mémoire contre un unique chargement des catégories existantes,
+ * les ids réservés en une requête sur la séquence de la colonne identity, puis les lignes
+ * insérées par lots JDBC. Un nœud rejeté (doublon, champ manquant) entraîne le rejet de
+ * ses descendants ; tous les autres sont créés.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CategoryImportService {
+
+    static final int MAX_NODES = 50_000;
+    private static final int INSERT_BATCH = 1000;
+
+    private static final String SELECT_EXISTING =
+            "SELECT id, name, slug, path, parent_id, position, deleted_at IS NULL AS visible FROM categories";
+
+    private static final String RESERVE_IDS =
+            "SELECT nextval(pg_get_serial_sequence('categories', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_CATEGORY = """
+            INSERT INTO categories (id, name, slug, description, path, parent_id, position, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private record Existing(long id, String path, boolean visible) {
+    }
+
+    // Catégories existantes : noms et slugs (contraintes uniques) + parents possibles
+    private static final class Catalog {
+        final Set<String> names = new HashSet<>();
+        final Set<String> slugs = new HashSet<>();
+        final Map<Long, Existing> byId = new HashMap<>();
+        final Map<String, Existing> byName = new HashMap<>();
+        // Dernière clé d'ordre par parent existant (clé null : racines)
+        final Map<Long, String> lastPositions = new HashMap<>();
+    }
+
+    // Nœud à créer, dans l'ordre d'insertion (parent avant enfants)
+    private static final class Planned {
+        final String displayPath;
+        final String rawName;
+        final String description;
+        final Planned parent;
+        final Existing existingParent;
+        String error;
+        String name;
+        String slug;
+        Long id;
+        String path;
+        String position;
+
+        Planned(String displayPath, String rawName, String description, Planned parent, Existing existingParent) {
+            this.displayPath = displayPath;
+            this.rawName = rawName;
+            this.description = description;
+            this.parent = parent;
+            this.existingParent = existingParent;
+        }
+    }
+
+    /**
+     * Arbre imbriqué (JSON), éventuellement rattaché sous une catégorie existante.
+     */
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportCategoriesResponse importTree(ImportCategoriesRequest request) {
+        long start = System.nanoTime();
+        Catalog catalog = loadCatalog();
+        Existing root = resolveParent(catalog, request.getParentId());
+
+        // Parcours préfixe itératif : chaque parent est planifié avant ses enfants
+        List<Planned> plan = new ArrayList<>();
+        Deque<Map.Entry<ImportCategoryNode, Planned>> stack = new ArrayDeque<>();
+        List<ImportCategoryNode> roots = request.getCategories();
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            stack.push(new AbstractMap.SimpleEntry<>(roots.get(i), null));
+        }
+        while (!stack.isEmpty()) {
+            var entry = stack.pop();
+            ImportCategoryNode node = entry.getKey();
+            Planned parent = entry.getValue();
+            if (node == null) continue;
+            String displayPath = parent == null ? node.getName() : parent.displayPath + "/" + node.getName();
+            Planned planned = new Planned(displayPath, node.getName(), node.getDescription(),
+                    parent, parent == null ? root : null);
+            plan.add(planned);
+            if (plan.size() > MAX_NODES) {
+                throw new BadRequestException("Import limité à " + MAX_NODES + " catégories");
+            }
+            List<ImportCategoryNode> children = node.getChildren() == null ? List.of() : node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(new AbstractMap.SimpleEntry<>(children.get(i), planned));
+            }
+        }
+        return execute(catalog, plan, start);
+    }
+
+    /**
+     * CSV "path,description" : path liste les noms depuis la racine, séparés par "/"
+     * (ex. "grammaire/verbes/passé"). Le parent est une ligne précédente du fichier
+     * ou, à défaut, une catégorie existante du même nom.
+     */
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportCategoriesResponse importCsv(String csv, Long parentId) {
+        long start = System.nanoTime();
+        Catalog catalog = loadCatalog();
+        Existing root = resolveParent(catalog, parentId);
+
+        List<List<String>> rows = CsvUtil.parse(csv == null ? "" : csv);
+        if (!rows.isEmpty() && "path".equalsIgnoreCase(rows.get(0).get(0).trim())) {
+            rows = rows.subList(1, rows.size());
+        }
+        if (rows.isEmpty()) {
+            throw new BadRequestException("L'arbre à importer est vide");
+        }
+        if (rows.size() > MAX_NODES) {
+            throw new BadRequestException("Import limité à " + MAX_NODES + " catégories");
+        }
+
+        List<Planned> plan = new ArrayList<>(rows.size());
+        Map<String, Planned> byPath = new HashMap<>(rows.size() * 2);
+        for (List<String> row : rows) {
+            String displayPath = row.get(0).trim();
+            String description = row.size() > 1 ? row.get(1) : null;
+            String[] segments = displayPath.split("/");
+            String rawName = segments[segments.length - 1].trim();
+
+            Planned parent = null;
+            Existing existingParent = root;
+            String error = null;
+            if (segments.length > 1) {
+                String parentKey = pathKey(Arrays.copyOf(segments, segments.length - 1));
+                parent = byPath.get(parentKey);
+                if (parent == null) {
+                    existingParent = catalog.byName.get(normalizeName(segments[segments.length - 2]));
+                    if (existingParent == null || !existingParent.visible()) {
+                        existingParent = null;
+                        error = "Parent introuvable : " + parentKey;
+                    }
+                } else {
+                    existingParent = null;
+                }
+            }
+
+            Planned planned = new Planned(displayPath, rawName, description, parent, existingParent);
+            planned.error = error;
+            plan.add(planned);
+            byPath.putIfAbsent(pathKey(segments), planned);
+        }
+        return execute(catalog, plan, start);
+    }
+
+    private ImportCategoriesResponse execute(Catalog catalog, List<Planned> plan, long start) {
+        List<Planned> accepted = validate(catalog, plan);
+
+        if (!accepted.isEmpty()) {
+            // Une requête pour tous les ids, puis chemins calculés en mémoire
+            List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS, Long.class, accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                Planned node = accepted.get(i);
+                node.id = ids.get(i);
+                String parentPath = node.parent != null ? node.parent.path
+                        : node.existingParent != null ? node.existingParent.path() : "/";
+                node.path = parentPath + node.id + "/";
+                if (node.path.length() > Category.MAX_PATH_LENGTH) {
+                    throw new BadRequestException("Profondeur maximale de l'arborescence atteinte : " + node.name);
+                }
+            }
+            assignPositions(catalog, accepted);
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY, accepted, INSERT_BATCH, (ps, node) -> {
+                ps.setLong(1, node.id);
+                ps.setString(2, node.name);
+                ps.setString(3, node.slug);
+                ps.setString(4, node.description.trim());
+                ps.setString(5, node.path);
+                Long parentId = node.parent != null ? node.parent.id
+                        : node.existingParent != null ? node.existingParent.id() : null;
+                if (parentId != null) ps.setLong(6, parentId);
+                else ps.setNull(6, Types.BIGINT);
+                ps.setString(7, node.position);
+                ps.setTimestamp(8, now);
+                ps.setTimestamp(9, now);
+            });
+            eventPublisher.publishEvent(new CatalogChangedEvent("categories imported"));
+        }
+
+        List<ImportCategoryResult> results = new ArrayList<>(plan.size());
+        for (Planned node : plan) {
+            results.add(ImportCategoryResult.builder()
+                    .path(node.displayPath)
+                    .id(node.id)
+                    .slug(node.error == null ? node.slug : null)
+                    .status(node.error == null ? CategoryImportStatus.CREATED : CategoryImportStatus.REJECTED)
+                    .error(node.error)
+                    .build());
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("📥 Import de catégories : {} créées, {} rejetées en {} ms",
+                accepted.size(), plan.size() - accepted.size(), durationMs);
+        return ImportCategoriesResponse.builder()
+                .created(accepted.size())
+                .rejected(plan.size() - accepted.size())
+                .durationMs(durationMs)
+                .results(results)
+                .build();
+    }
+
+    // Ordre du fichier conservé : clés régulièrement espacées par fratrie, après les frères existants
+    private static void assignPositions(Catalog catalog, List<Planned> accepted) {
+        Map<Object, List<Planned>> siblings = new LinkedHashMap<>();
+        for (Planned node : accepted) {
+            Object parentKey = node.parent != null ? node.parent
+                    : node.existingParent != null ? node.existingParent.id() : null;
+            siblings.computeIfAbsent(parentKey, key -> new ArrayList<>()).add(node);
+        }
+        siblings.forEach((parentKey, nodes) -> {
+            String last = parentKey instanceof Planned ? null : catalog.lastPositions.get((Long) parentKey);
+            if (last == null) {
+                List<String> keys = OrderKey.evenlySpaced(nodes.size());
+                for (int i = 0; i < nodes.size(); i++) {
+                    nodes.get(i).position = keys.get(i);
+                }
+                return;
+            }
+            // Après les frères existants : ajouts successifs en fin de liste (la clé croît en log du nombre)
+            for (Planned node : nodes) {
+                last = OrderKey.between(last, null);
+                node.position = last;
+            }
+        });
+    }
+
+    // Mêmes règles que la création unitaire, vérifiées contre l'existant et le reste du fichier
+    private static List<Planned> validate(Catalog catalog, List<Planned> plan) {
+        List<Planned> accepted = new ArrayList<>(plan.size());
+        for (Planned node : plan) {
+            if (node.error == null) {
+                node.error = check(catalog, node);
+            }
+            if (node.error == null) {
+                accepted.add(node);
+            }
+        }
+        return accepted;
+    }
+
+    private static String check(Catalog catalog, Planned node) {
+        if (node.parent != null && node.parent.error != null) {
+            return "Parent rejeté";
+        }
+        String name = normalizeName(node.rawName);
+        if (name == null || name.isEmpty()) {
+            return "Le nom est obligatoire";
+        }
+        if (name.length() > 255) {
+            return "Le nom dépasse 255 caractères";
+        }
+        if (node.description == null || node.description.isBlank()) {
+            return "La description est obligatoire";
+        }
+        if (node.description.trim().length() > 5000) {
+            return "La description dépasse 5000 caractères";
+        }
+        String slug = SlugUtil.generateSlug(name);
+        if (slug.isEmpty()) {
+            return "Slug vide pour ce nom";
+        }
+        if (catalog.names.contains(name)) {
+            return "Nom déjà utilisé";
+        }
+        if (catalog.slugs.contains(slug)) {
+            return "Slug déjà utilisé";
+        }
+        catalog.names.add(name);
+        catalog.slugs.add(slug);
+        node.name = name;
+        node.slug = slug;
+        return null;
+    }
+
+    private Catalog loadCatalog() {
+        Catalog catalog = new Catalog();
+        jdbcTemplate.query(SELECT_EXISTING, rs -> {
+            Existing existing = new Existing(rs.getLong("id"), rs.getString("path"), rs.getBoolean("visible"));
+            String name = rs.getString("name");
+            catalog.byId.put(existing.id(), existing);
+            // Une catégorie supprimée (en attente de purge) libère son nom et son slug
+            if (existing.visible()) {
+                catalog.names.add(name);
+                catalog.slugs.add(rs.getString("slug"));
+                catalog.byName.put(name, existing);
+            }
+            String position = rs.getString("position");
+            if (existing.visible() && position != null) {
+                Long parentId = rs.getObject("parent_id", Long.class);
+                catalog.lastPositions.merge(parentId, position, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+            }
+        });
+        return catalog;
+    }
+
+    private static Existing resolveParent(Catalog catalog, Long parentId) {
+        if (parentId == null) return null;
+        Existing parent = catalog.byId.get(parentId);
+        if (parent == null || !parent.visible()) {
+            throw new EntityNotFoundException("Catégorie parente introuvable");
+        }
+        return parent;
+    }
+
+    private static String normalizeName(String name) {
+        return name == null ? null : name.trim().toLowerCase();
+    }
+
+    private static String pathKey(String[] segments) {
+        StringJoiner joiner = new StringJoiner("/");
+        for (String segment : segments) {
+            joiner.add(normalizeName(segment));
+        }
+        return joiner.toString();
+    }
+}
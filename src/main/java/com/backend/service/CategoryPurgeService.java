@@ -0,0 +1,165 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🗑️ Purge des sous-arbres de catégories supprimés logiquement (deleted_at).
+ * Documents d'abord, par lots : PDF supprimés chez Cloudinary, puis liens de progression
+ * et documents dans une petite transaction ; enfin les catégories, des plus profondes aux racines.
+ * Tout l'état est porté par les lignes elles-mêmes : un run interrompu reprend là où il s'est arrêté.
+ */
+@Slf4j
+@Service
+public class CategoryPurgeService {
+
+    static final String PURGE_CATEGORIES_JOB = "purge-deleted-categories";
+
+    private static final String SELECT_HIDDEN_DOCUMENTS = """
+            SELECT d.id, d.url_pdf
+            FROM documents d
+            JOIN categories c ON c.id = d.category_id
+            WHERE c.deleted_at IS NOT NULL
+            ORDER BY d.id
+            LIMIT ?
+            """;
+
+    private static final List<String> PROGRESSION_LINKS = List.of(
+            "progression_in_progress", "progression_complete", "progression_favorites");
+
+    // Le chemin le plus long d'abord : un nœud n'est supprimé qu'avec ou après ses descendants
+    private static final String DELETE_HIDDEN_CATEGORIES = """
+            DELETE FROM categories
+            WHERE id IN (
+                SELECT id FROM categories
+                WHERE deleted_at IS NOT NULL
+                ORDER BY length(path) DESC
+                LIMIT ?)
+            """;
+
+    private static final String COUNT_PENDING = """
+            SELECT (SELECT count(*) FROM categories WHERE deleted_at IS NOT NULL),
+                   (SELECT count(*) FROM documents d JOIN categories c ON c.id = d.category_id
+                    WHERE c.deleted_at IS NOT NULL)
+            """;
+
+    private record HiddenDocument(long id, String urlPdf) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobRunner clusterJobRunner;
+    private final CloudinaryService cloudinaryService;
+    private final AppProperties.Maintenance config;
+
+    private final AtomicLong pendingCategories = new AtomicLong();
+    private final AtomicLong pendingDocuments = new AtomicLong();
+
+    public CategoryPurgeService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ClusterJobRunner clusterJobRunner,
+                                CloudinaryService cloudinaryService,
+                                AppProperties appProperties,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterJobRunner = clusterJobRunner;
+        this.cloudinaryService = cloudinaryService;
+        this.config = appProperties.getMaintenance();
+        Gauge.builder("catalog.purge.pending", pendingCategories, AtomicLong::get)
+                .tag("kind", "categories")
+                .description("Catégories supprimées en attente de purge")
+                .register(meterRegistry);
+        Gauge.builder("catalog.purge.pending", pendingDocuments, AtomicLong::get)
+                .tag("kind", "documents")
+                .description("Documents de catégories supprimées en attente de purge")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.maintenance.category-purge-cron:0 * * * * *}")
+    public void purgeDeletedCategories() {
+        if (!config.isEnabled()) return;
+        clusterJobRunner.run(PURGE_CATEGORIES_JOB, () -> {
+            refreshPending();
+            if (pendingCategories.get() == 0) {
+                return 0;
+            }
+            long documents = purgeDocuments();
+            long categories = 0;
+            // Catégories seulement une fois vidées de leurs documents (clé étrangère)
+            if (pendingDocuments.get() == documents) {
+                categories = purgeCategories();
+            }
+            refreshPending();
+            log.info("🗑️ Purge du catalogue : {} documents, {} catégories supprimés ; reste {} documents, {} catégories",
+                    documents, categories, pendingDocuments.get(), pendingCategories.get());
+            return documents + categories;
+        });
+    }
+
+    private long purgeDocuments() {
+        long total = 0;
+        for (int i = 0; i < config.getMaxBatchesPerRun(); i++) {
+            List<HiddenDocument> batch = jdbcTemplate.query(SELECT_HIDDEN_DOCUMENTS,
+                    (rs, rowNum) -> new HiddenDocument(rs.getLong("id"), rs.getString("url_pdf")),
+                    config.getBatchSize());
+            if (batch.isEmpty()) {
+                return total;
+            }
+            // Fichiers distants d'abord : si l'appel échoue, les lignes restent et le lot sera rejoué
+            cloudinaryService.deletePdfs(batch.stream().map(HiddenDocument::urlPdf).toList());
+
+            Long[] ids = batch.stream().map(HiddenDocument::id).toArray(Long[]::new);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String table : PROGRESSION_LINKS) {
+                    jdbcTemplate.update("DELETE FROM " + table + " WHERE document_id = ANY(?)",
+                            ps -> ps.setArray(1, bigintArray(ps.getConnection(), ids)));
+                }
+                jdbcTemplate.update("DELETE FROM documents WHERE id = ANY(?)",
+                        ps -> ps.setArray(1, bigintArray(ps.getConnection(), ids)));
+            });
+            total += batch.size();
+            if (batch.size() < config.getBatchSize()) {
+                return total;
+            }
+        }
+        log.warn("⚠️ Plafond de {} lots atteint, la purge reprendra au prochain run", config.getMaxBatchesPerRun());
+        return total;
+    }
+
+    private long purgeCategories() {
+        long total = 0;
+        for (int i = 0; i < config.getMaxBatchesPerRun(); i++) {
+            int deleted = transactionTemplate.execute(status ->
+                    jdbcTemplate.update(DELETE_HIDDEN_CATEGORIES, config.getBatchSize()));
+            total += deleted;
+            if (deleted < config.getBatchSize()) {
+                return total;
+            }
+        }
+        return total;
+    }
+
+    private void refreshPending() {
+        jdbcTemplate.query(COUNT_PENDING, rs -> {
+            pendingCategories.set(rs.getLong(1));
+            pendingDocuments.set(rs.getLong(2));
+        });
+    }
+
+    private static Array bigintArray(Connection connection, Long[] ids) throws SQLException {
+        return connection.createArrayOf("bigint", ids);
+    }
+}
@@ -2,25 +2,38 @@ package com.backend.service;
 
 import com.backend.dto.category.CategoryResponse;
 import com.backend.dto.category.CreateCategoryRequest;
-import com.backend.exception.CategoryAlreadyExist;
+import com.backend.dto.common.PagedResponse;
+import com.backend.dto.common.PositionRequest;
+import com.backend.event.CatalogChangedEvent;
+import com.backend.exception.BadRequestException;
 import com.backend.mapper.CategoryMapper;
 import com.backend.model.Category;
 import com.backend.repository.CategoryRepository;
+import com.backend.repository.DocumentRepository;
+import com.backend.repository.projection.CategoryNodeView;
+import com.backend.util.OrderKey;
 import com.backend.util.SlugUtil;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Set;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final DocumentRepository documentRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentListingService documentListingService;
 
     private String normalizeName(String name) {
         return name == null ? null : name.trim().toLowerCase();
@@ -34,57 +47,146 @@ public class CategoryService {
             throw new IllegalArgumentException("Le nom de la catégorie ne peut pas être vide");
         }
 
-        if (categoryRepository.existsByName(normalizedName)) {
-            throw new CategoryAlreadyExist("Catégorie déjà existante");
-        }
-
         String slug = SlugUtil.generateSlug(normalizedName);
-        if (categoryRepository.existsBySlug(slug)) {
-            throw new CategoryAlreadyExist("Une catégorie avec ce slug existe déjà");
-        }
 
         Category.CategoryBuilder builder = Category.builder()
                 .name(normalizedName)
                 .slug(slug)
                 .description(request.getDescription());
 
+        Category parent = null;
         if (request.getParentId() != null) {
-            Category parent = categoryRepository.findById(request.getParentId())
+            parent = categoryRepository.findVisibleById(request.getParentId())
                     .orElseThrow(() -> new EntityNotFoundException("Catégorie parente introuvable"));
+            // Place pour un id de 19 chiffres et le séparateur
+            if (parent.getPath() != null && parent.getPath().length() + 20 > Category.MAX_PATH_LENGTH) {
+                throw new BadRequestException("Profondeur maximale de l'arborescence atteinte");
+            }
             builder.parent(parent);
         }
+        // Nouvelle catégorie en fin de liste parmi ses frères
+        builder.position(OrderKey.between(parent != null
+                ? categoryRepository.findLastChildPosition(parent.getId())
+                : categoryRepository.findLastRootPosition(), null));
 
-        Category saved = categoryRepository.save(builder.build());
+        // Doublon nom / slug → contraintes uk_categories_* (cf. GlobalExceptionHandler)
+        Category saved = categoryRepository.saveAndFlush(builder.build());
+        // L'id (IDENTITY) n'est connu qu'après l'insertion : chemin écrit au commit
+        saved.setPath((parent != null ? parent.getPath() : "/") + saved.getId() + "/");
+        eventPublisher.publishEvent(new CatalogChangedEvent("category created"));
         return CategoryMapper.toCategoryResponse(saved);
     }
-    private void initializeRecursively(Category category) {
-        category.getChildren().size(); // force init
-        category.getChildren().forEach(this::initializeRecursively);
-    }
     private Category findBySlugOrThrow(String slug) {
-        return categoryRepository.findBySlug(slug)
+        return categoryRepository.findVisibleBySlug(slug)
                 .orElseThrow(() -> new EntityNotFoundException("Catégorie introuvable"));
     }
 
-    @Transactional(readOnly = true)
-    public List<CategoryResponse> getCategoryParent(){
-        Set<Category> roots = categoryRepository.findByParentIsNull();
-        roots.forEach(this::initializeRecursively); // ⚡ force init des enfants
-       return CategoryMapper.toCategoryResponseList(roots);
+    // Profondeur demandée (null : arbre complet, comportement historique)
+    private static int levels(Integer depth) {
+        if (depth == null) return Integer.MAX_VALUE;
+        if (depth < 0) {
+            throw new BadRequestException("La profondeur doit être positive ou nulle");
+        }
+        return depth;
     }
 
+    private static int indexOrThrow(CategorySnapshot snapshot, String slug) {
+        int index = snapshot.indexOf(slug);
+        if (index < 0) {
+            throw new EntityNotFoundException("Catégorie introuvable");
+        }
+        return index;
+    }
+
+    /**
+     * 🌳 Lecture depuis la photographie en mémoire : ni verrou ni requête.
+     * Seuls les {@code depth} premiers niveaux sont construits ; les nœuds non développés
+     * portent {@code hasChildren} pour être chargés à la demande.
+     */
+    public List<CategoryResponse> getCategoryParent(Integer depth){
+        return categoryCatalog.snapshot().rootResponses(levels(depth));
+    }
+
+
+    public CategoryResponse getCategoryBySlug(String slug, Integer depth){
+        CategorySnapshot snapshot = categoryCatalog.snapshot();
+        return snapshot.toResponse(indexOrThrow(snapshot, slug), true, levels(depth));
+    }
+
+    /**
+     * 📂 Enfants directs paginés (expansion paresseuse côté client), chacun sur {@code depth} niveaux.
+     */
+    public PagedResponse<CategoryResponse> getChildren(String slug, Pageable pageable, int depth){
+        CategorySnapshot snapshot = categoryCatalog.snapshot();
+        int index = indexOrThrow(snapshot, slug);
+        List<CategoryResponse> children = snapshot.childResponses(
+                index, (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE), pageable.getPageSize(), levels(depth));
+        return PagedResponse.fromPage(new PageImpl<>(children, pageable, snapshot.childCountAt(index)));
+    }
 
+    /**
+     * 🧭 Fil d'Ariane : ancêtres de la catégorie, racine d'abord (une requête, quelle que soit la profondeur).
+     */
     @Transactional(readOnly = true)
-    public CategoryResponse getCategoryBySlug(String slug){
-        var cat = findBySlugOrThrow(slug);
-        return CategoryMapper.toCategoryResponse(cat);
+    public List<CategoryResponse> getAncestors(String slug) {
+        List<CategoryNodeView> path = categoryRepository.findPathBySlug(slug);
+        if (path.isEmpty()) {
+            throw new EntityNotFoundException("Catégorie introuvable");
+        }
+        return path.subList(0, path.size() - 1).stream()
+                .map(CategoryMapper::toShallowCategoryResponse)
+                .toList();
+    }
+
+    /**
+     * 🔢 Déplace une catégorie parmi ses frères : seule sa clé d'ordre est réécrite.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public CategoryResponse moveCategory(String slug, PositionRequest request) {
+        if (request.getAfterSlug() == null && request.getBeforeSlug() == null) {
+            throw new BadRequestException("Indiquez la catégorie précédente ou suivante");
+        }
+        Category cat = findBySlugOrThrow(slug);
+        String after = siblingPosition(cat, request.getAfterSlug());
+        String before = siblingPosition(cat, request.getBeforeSlug());
+
+        cat.setPosition(OrderKey.between(after, before));
+        eventPublisher.publishEvent(new CatalogChangedEvent("category moved"));
+        return CategoryMapper.toCategoryResponse(cat, true, false);
+    }
+
+    // Clé d'un voisin, qui doit partager le parent de la catégorie déplacée
+    private String siblingPosition(Category cat, String siblingSlug) {
+        if (siblingSlug == null) return null;
+        Category sibling = findBySlugOrThrow(siblingSlug);
+        if (sibling.getId().equals(cat.getId()) || !Objects.equals(parentId(sibling), parentId(cat))) {
+            throw new BadRequestException("Les catégories voisines doivent avoir le même parent");
+        }
+        if (sibling.getPosition() == null) {
+            throw new BadRequestException("Ordre en cours d'initialisation, réessayez plus tard");
+        }
+        return sibling.getPosition();
+    }
+
+    private static Long parentId(Category category) {
+        return category.getParent() == null ? null : category.getParent().getId();
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
     public String deleteCategory(String slug){
         var cat = findBySlugOrThrow(slug);
-        categoryRepository.delete(cat);
+        String path = cat.getPath();
+        // Les documents du sous-arbre disparaissent avec lui : on les retire des ancêtres
+        if (cat.getParent() != null) {
+            categoryRepository.removeSubtreeDocuments(cat.getId(), cat.getParent().getPath());
+        }
+        // Une seule instruction indexée : le sous-arbre est masqué, CategoryPurgeService supprime le reste
+        categoryRepository.softDeleteTree(path);
+        documentRepository.softDeleteInTree(path);
+        documentListingService.deleteCategoryTree(path);
+        eventPublisher.publishEvent(new CatalogChangedEvent("category deleted"));
         return "Catégorie supprimée";
     }
 }
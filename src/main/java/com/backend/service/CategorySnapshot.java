@@ -0,0 +1,248 @@
+package com.backend.service;
+
+import com.backend.dto.category.CategoryResponse;
+import com.backend.repository.projection.CategoryNodeView;
+
+import java.util.*;
+
+/**
+ * 🌳 Photographie immuable de l'arbre des catégories.
+ * Les nœuds sont indexés de 0 à n-1 ; la hiérarchie est stockée dans des tableaux
+ * primitifs (parent, enfants au format CSR) ; les comptes sont ceux des compteurs de la table.
+ * Une instance n'est jamais modifiée : elle est remplacée en bloc (copy-on-write).
+ */
+public final class CategorySnapshot {
+
+    private static final int NO_PARENT = -1;
+
+    private final long[] ids;
+    private final int[] parents;
+    private final String[] names;
+    private final String[] slugs;
+    private final String[] descriptions;
+    private final int[] directCounts;
+    private final int[] totalCounts;
+    // Enfants du nœud i : childIndexes[childStart[i] .. childStart[i + 1])
+    private final int[] childStart;
+    private final int[] childIndexes;
+    private final int[] roots;
+    private final Map<String, Integer> bySlug;
+    private final long buildNanos;
+
+    private CategorySnapshot(long[] ids, int[] parents, String[] names, String[] slugs, String[] descriptions,
+                             int[] directCounts, int[] totalCounts, int[] childStart, int[] childIndexes,
+                             int[] roots, Map<String, Integer> bySlug, long buildNanos) {
+        this.ids = ids;
+        this.parents = parents;
+        this.names = names;
+        this.slugs = slugs;
+        this.descriptions = descriptions;
+        this.directCounts = directCounts;
+        this.totalCounts = totalCounts;
+        this.childStart = childStart;
+        this.childIndexes = childIndexes;
+        this.roots = roots;
+        this.bySlug = bySlug;
+        this.buildNanos = buildNanos;
+    }
+
+    /**
+     * Construit la photographie à partir des lignes à plat (triées par id).
+     */
+    public static CategorySnapshot build(List<CategoryNodeView> rows) {
+        long start = System.nanoTime();
+        int n = rows.size();
+        long[] ids = new long[n];
+        int[] parents = new int[n];
+        String[] names = new String[n];
+        String[] slugs = new String[n];
+        String[] descriptions = new String[n];
+        int[] directCounts = new int[n];
+        int[] totalCounts = new int[n];
+        Map<Long, Integer> byId = new HashMap<>(n * 2);
+        Map<String, Integer> bySlug = new HashMap<>(n * 2);
+
+        for (int i = 0; i < n; i++) {
+            CategoryNodeView row = rows.get(i);
+            ids[i] = row.getId();
+            names[i] = row.getName();
+            slugs[i] = row.getSlug();
+            descriptions[i] = row.getDescription();
+            directCounts[i] = row.getDocumentCount();
+            totalCounts[i] = row.getSubtreeDocumentCount();
+            byId.put(row.getId(), i);
+            bySlug.put(row.getSlug(), i);
+        }
+
+        // Parents et nombre d'enfants
+        int[] childCount = new int[n];
+        int rootCount = 0;
+        for (int i = 0; i < n; i++) {
+            Long parentId = rows.get(i).getParentId();
+            Integer parent = parentId == null ? null : byId.get(parentId);
+            parents[i] = parent == null ? NO_PARENT : parent;
+            if (parent == null) rootCount++;
+            else childCount[parent]++;
+        }
+
+        // Enfants au format CSR (ordre des lignes conservé)
+        int[] childStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            childStart[i + 1] = childStart[i] + childCount[i];
+        }
+        int[] childIndexes = new int[childStart[n]];
+        int[] cursor = Arrays.copyOf(childStart, n);
+        int[] roots = new int[rootCount];
+        int r = 0;
+        for (int i = 0; i < n; i++) {
+            if (parents[i] == NO_PARENT) roots[r++] = i;
+            else childIndexes[cursor[parents[i]]++] = i;
+        }
+
+        return new CategorySnapshot(ids, parents, names, slugs, descriptions, directCounts, totalCounts,
+                childStart, childIndexes, roots, Collections.unmodifiableMap(bySlug), System.nanoTime() - start);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return l'index du nœud, ou -1 si le slug est inconnu
+     */
+    public int indexOf(String slug) {
+        Integer index = bySlug.get(slug);
+        return index == null ? -1 : index;
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    public int directCountAt(int index) {
+        return directCounts[index];
+    }
+
+    public int totalCountAt(int index) {
+        return totalCounts[index];
+    }
+
+    public int childCountAt(int index) {
+        return childStart[index + 1] - childStart[index];
+    }
+
+    /**
+     * Chemin matérialisé du nœud ("/id racine/…/id/"), reconstitué depuis ses ancêtres.
+     */
+    public String pathAt(int index) {
+        Deque<Long> chain = new ArrayDeque<>();
+        for (int i = index; i != NO_PARENT; i = parents[i]) {
+            chain.push(ids[i]);
+        }
+        StringBuilder path = new StringBuilder("/");
+        for (long id : chain) {
+            path.append(id).append('/');
+        }
+        return path.toString();
+    }
+
+    /**
+     * Racines, chacune développée sur {@code depth} niveaux.
+     */
+    public List<CategoryResponse> rootResponses(int depth) {
+        List<CategoryResponse> responses = new ArrayList<>(roots.length);
+        for (int root : roots) {
+            responses.add(toResponse(root, false, depth));
+        }
+        return responses;
+    }
+
+    /**
+     * Au plus {@code limit} enfants directs de {@code index} à partir de la position {@code offset},
+     * chacun développé sur {@code depth} niveaux.
+     */
+    public List<CategoryResponse> childResponses(int index, int offset, int limit, int depth) {
+        int from = Math.min(childStart[index] + offset, childStart[index + 1]);
+        int to = (int) Math.min((long) from + limit, childStart[index + 1]);
+        List<CategoryResponse> responses = new ArrayList<>(to - from);
+        for (int c = from; c < to; c++) {
+            responses.add(toResponse(childIndexes[c], false, depth));
+        }
+        return responses;
+    }
+
+    /**
+     * Nœud et ses descendants jusqu'à {@code depth} niveaux (0 : le nœud seul) ;
+     * le parent (superficiel) est inclus si demandé. Au-delà, {@code hasChildren}
+     * indique au client qu'il peut développer le nœud.
+     * Construction itérative : pas de récursion, quelle que soit la profondeur.
+     */
+    public CategoryResponse toResponse(int index, boolean includeParent, int depth) {
+        CategoryResponse top = node(index, depth > 0);
+        if (includeParent && parents[index] != NO_PARENT) {
+            top.setParent(shallow(parents[index]));
+        }
+        Deque<Object[]> stack = new ArrayDeque<>();
+        stack.push(new Object[]{index, top, depth});
+        while (!stack.isEmpty()) {
+            Object[] frame = stack.pop();
+            int current = (int) frame[0];
+            CategoryResponse response = (CategoryResponse) frame[1];
+            int remaining = (int) frame[2];
+            if (remaining <= 0) continue;
+            for (int c = childStart[current]; c < childStart[current + 1]; c++) {
+                int child = childIndexes[c];
+                CategoryResponse childResponse = node(child, remaining > 1);
+                response.getChildren().add(childResponse);
+                stack.push(new Object[]{child, childResponse, remaining - 1});
+            }
+        }
+        return top;
+    }
+
+    private CategoryResponse node(int index, boolean expanded) {
+        int childCount = childCountAt(index);
+        return CategoryResponse.builder()
+                .id(ids[index])
+                .name(names[index])
+                .slug(slugs[index])
+                .description(descriptions[index])
+                .count(directCounts[index])
+                .totalCount(totalCounts[index])
+                .hasChildren(childCount > 0)
+                .children(expanded ? new ArrayList<>(childCount) : List.of())
+                .build();
+    }
+
+    private CategoryResponse shallow(int index) {
+        return CategoryResponse.builder()
+                .id(ids[index])
+                .name(names[index])
+                .slug(slugs[index])
+                .build();
+    }
+
+    /**
+     * Estimation de l'empreinte mémoire (tableaux, chaînes, index par slug), en octets.
+     */
+    public long estimatedBytes() {
+        int n = ids.length;
+        long bytes = 16L * 12;                                  // en-têtes des tableaux
+        bytes += 8L * n;                                        // ids
+        bytes += 4L * (n + n + n + (n + 1) + childIndexes.length + roots.length); // tableaux d'int
+        bytes += 3L * 4 * n;                                    // références de chaînes
+        for (int i = 0; i < n; i++) {
+            bytes += stringBytes(names[i]) + stringBytes(slugs[i]) + stringBytes(descriptions[i]);
+        }
+        bytes += 48L * n;                                       // entrées de la map slug → index
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40L + value.length();       // Latin-1 compact (UTF-16 au pire x2)
+    }
+}
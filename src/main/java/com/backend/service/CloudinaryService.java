@@ -8,11 +8,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class CloudinaryService {
+    private static final int DELETE_BATCH = 100;
+    // https://res.cloudinary.com/<cloud>/<type>/upload/v123/learnarabic/<slug>.pdf
+    private static final Pattern ASSET_URL = Pattern.compile("/(image|raw|video)/upload/(?:v\\d+/)?(.+?)(\\.[A-Za-z0-9]+)?$");
+
     private final Cloudinary cloudinary;
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -32,4 +41,35 @@ public class CloudinaryService {
             throw new RuntimeException("Erreur lors de l'upload du PDF", e);
         }
     }
+
+    /**
+     * 🗑️ Supprime des PDF par lots (API d'administration : 100 public_id par appel).
+     * Idempotent : un fichier déjà absent n'est pas une erreur.
+     * @param urls URLs renvoyées par {@link #uploadPdf}
+     */
+    public void deletePdfs(List<String> urls) {
+        // Les public_id sont groupés par type de ressource (image pour "auto", raw pour les anciens envois)
+        Map<String, List<String>> byType = new HashMap<>();
+        for (String url : urls) {
+            Matcher matcher = ASSET_URL.matcher(url == null ? "" : url);
+            if (!matcher.find()) continue;
+            String type = matcher.group(1);
+            String publicId = matcher.group(2);
+            // Les ressources raw gardent l'extension dans leur public_id
+            if ("raw".equals(type) && matcher.group(3) != null) {
+                publicId += matcher.group(3);
+            }
+            byType.computeIfAbsent(type, key -> new ArrayList<>()).add(publicId);
+        }
+        byType.forEach((type, publicIds) -> {
+            for (int from = 0; from < publicIds.size(); from += DELETE_BATCH) {
+                List<String> batch = publicIds.subList(from, Math.min(from + DELETE_BATCH, publicIds.size()));
+                try {
+                    cloudinary.api().deleteResources(batch, ObjectUtils.asMap("resource_type", type));
+                } catch (Exception e) {
+                    throw new RuntimeException("Erreur lors de la suppression des PDF", e);
+                }
+            }
+        });
+    }
 }
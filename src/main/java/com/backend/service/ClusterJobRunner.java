@@ -0,0 +1,94 @@
+package com.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Exécute une tâche planifiée sur un seul nœud à la fois grâce à un verrou
+ * consultatif Postgres (pg_try_advisory_lock), tenu sur une connexion dédiée
+ * pendant toute la durée du job. Si un autre nœud détient le verrou, le run est sauté.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterJobRunner {
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param job  nom du job (sert aussi à dériver la clé du verrou)
+     * @param work travail à exécuter, renvoie le nombre de lignes traitées
+     * @return le nombre de lignes traitées, ou -1 si le verrou était déjà pris
+     */
+    public long run(String job, LongSupplier work) {
+        long lockKey = lockKey(job);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            if (!tryLock(connection, lockKey)) {
+                log.debug("⏭️ Job '{}' déjà en cours sur un autre nœud", job);
+                Counter.builder("maintenance.job.skipped").tag("job", job).register(meterRegistry).increment();
+                return -1;
+            }
+            try {
+                long start = System.nanoTime();
+                long rows = work.getAsLong();
+                long elapsed = System.nanoTime() - start;
+
+                Timer.builder("maintenance.job.duration").tag("job", job).register(meterRegistry)
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+                Counter.builder("maintenance.job.rows").tag("job", job).register(meterRegistry).increment(rows);
+                log.info("🧹 Job '{}' terminé : {} ligne(s) en {} ms", job, rows, elapsed / 1_000_000);
+                return rows;
+            } finally {
+                unlock(connection, lockKey);
+            }
+        } catch (SQLException e) {
+            log.error("❌ Verrou du job '{}' indisponible", job, e);
+            return -1;
+        } catch (RuntimeException e) {
+            Counter.builder("maintenance.job.failures").tag("job", job).register(meterRegistry).increment();
+            log.error("❌ Échec du job '{}'", job, e);
+            return -1;
+        }
+    }
+
+    private static boolean tryLock(Connection connection, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, key);
+            statement.execute();
+        }
+    }
+
+    // Clé stable entre nœuds et redémarrages (FNV-1a 64 bits du nom du job)
+    private static long lockKey(String job) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : job.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
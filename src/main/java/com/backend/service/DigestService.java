@@ -0,0 +1,349 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import com.backend.dto.digest.DigestRunResponse;
+import com.backend.enums.DigestRunStatus;
+import com.backend.mapper.DigestRunMapper;
+import com.backend.model.DigestRun;
+import com.backend.model.Document;
+import com.backend.repository.DigestRunRepository;
+import com.backend.repository.DocumentRepository;
+import com.backend.repository.UserRepository;
+import com.backend.repository.projection.DigestRecipientView;
+import com.backend.security.TokenBucket;
+import com.backend.util.PlaceholderTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * 📰 Digest hebdomadaire des nouveaux documents, envoyé à tous les utilisateurs vérifiés.
+ * <ul>
+ *     <li>les destinataires sont lus par segments (id croissant, curseur serveur) : jamais de findAll ;</li>
+ *     <li>le template Thymeleaf est rendu une seule fois, le pseudo est substitué par concaténation ;</li>
+ *     <li>l'envoi est parallèle (lots sur connexions SMTP du pool) et limité en débit ;</li>
+ *     <li>un point de reprise est enregistré après chaque segment : un run interrompu
+ *     reprend là où il s'était arrêté (au pire un segment est renvoyé).</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class DigestService {
+
+    static final String DIGEST_JOB = "weekly-digest";
+
+    private static final String TEMPLATE = "new-documents-digest.html";
+    private static final String SUBJECT = "Nouveaux documents sur Learn Arabic";
+    // Marqueur sans caractère échappé par Thymeleaf, remplacé par le pseudo de chaque destinataire
+    private static final String USERNAME_MARK = "__DIGEST_USERNAME__";
+
+    private final DigestRunRepository digestRunRepository;
+    private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+    private final MailService mailService;
+    private final ClusterJobRunner clusterJobRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties appProperties;
+    private final AppProperties.Digest config;
+
+    private final ExecutorService runner;
+    private final ExecutorService senders;
+    private final Counter sent;
+    private final Counter failed;
+
+    private record PreparedDigest(PlaceholderTemplate html, PlaceholderTemplate text) {
+    }
+
+    public DigestService(DigestRunRepository digestRunRepository,
+                         DocumentRepository documentRepository,
+                         UserRepository userRepository,
+                         MailService mailService,
+                         ClusterJobRunner clusterJobRunner,
+                         TransactionTemplate transactionTemplate,
+                         AppProperties appProperties,
+                         MeterRegistry meterRegistry) {
+        this.digestRunRepository = digestRunRepository;
+        this.documentRepository = documentRepository;
+        this.userRepository = userRepository;
+        this.mailService = mailService;
+        this.clusterJobRunner = clusterJobRunner;
+        this.transactionTemplate = transactionTemplate;
+        this.appProperties = appProperties;
+        this.config = appProperties.getMail().getDigest();
+        // Un seul run à la fois par nœud, hors du pool du scheduler (un run peut durer des heures) ;
+        // une seule demande en attente suffit, les suivantes sont ignorées
+        this.runner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> new Thread(runnable, "digest-runner"),
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.senders = Executors.newFixedThreadPool(Math.max(1, config.getWorkers()),
+                runnable -> new Thread(runnable, "digest-sender"));
+        this.sent = Counter.builder("mail.digest.sent").register(meterRegistry);
+        this.failed = Counter.builder("mail.digest.failed").register(meterRegistry);
+    }
+
+    // 📅 Démarrage hebdomadaire
+    @Scheduled(cron = "${app.mail.digest.cron:0 0 9 * * MON}")
+    public void scheduledStart() {
+        if (config.isEnabled()) {
+            runner.execute(() -> execute(true));
+        }
+    }
+
+    // 🔁 Reprise d'un run interrompu (redémarrage, panne SMTP)
+    @Scheduled(fixedDelayString = "${app.mail.digest.resume-interval:PT10M}", initialDelayString = "PT1M")
+    public void resumeInterrupted() {
+        if (config.isEnabled()) {
+            runner.execute(() -> execute(false));
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public void startNow() {
+        runner.execute(() -> execute(true));
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public DigestRunResponse cancel(Long id) {
+        DigestRun run = digestRunRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Digest introuvable"));
+        if (run.getStatus() == DigestRunStatus.RUNNING) {
+            run.setStatus(DigestRunStatus.CANCELLED);
+            run.setFinishedAt(LocalDateTime.now());
+        }
+        return DigestRunMapper.toResponse(run);
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<DigestRunResponse> getRuns(int limit) {
+        return DigestRunMapper.toResponseList(digestRunRepository.findAllByOrderByStartedAtDesc(Pageable.ofSize(limit)));
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public DigestRunResponse getCurrentRun() {
+        return digestRunRepository.findFirstByStatusOrderByStartedAtDesc(DigestRunStatus.RUNNING)
+                .map(DigestRunMapper::toResponse)
+                .orElseThrow(() -> new EntityNotFoundException("Aucun digest en cours"));
+    }
+
+    /**
+     * Exécute (ou reprend) le run en cours, sous verrou de cluster.
+     * @param createIfIdle crée un nouveau run si aucun n'est en cours
+     */
+    private void execute(boolean createIfIdle) {
+        clusterJobRunner.run(DIGEST_JOB, () -> {
+            DigestRun run = digestRunRepository.findFirstByStatusOrderByStartedAtDesc(DigestRunStatus.RUNNING)
+                    .orElseGet(() -> createIfIdle ? createRun() : null);
+            return run == null ? 0 : process(run);
+        });
+    }
+
+    private DigestRun createRun() {
+        LocalDateTime windowEnd = LocalDateTime.now();
+        LocalDateTime windowStart = digestRunRepository
+                .findFirstByStatusOrderByWindowEndDesc(DigestRunStatus.COMPLETED)
+                .map(DigestRun::getWindowEnd)
+                .orElse(windowEnd.minus(config.getInitialWindow()));
+        int documents = documentRepository.findCreatedBetween(windowStart, windowEnd, Pageable.ofSize(config.getMaxDocuments())).size();
+
+        DigestRun run = DigestRun.builder()
+                .windowStart(windowStart)
+                .windowEnd(windowEnd)
+                .documentCount(documents)
+                .totalRecipients(documents == 0 ? 0 : userRepository.countByIsVerifiedTrue())
+                .build();
+        if (documents == 0) {
+            // Rien de nouveau : la fenêtre est consommée sans envoi
+            run.setStatus(DigestRunStatus.COMPLETED);
+            run.setFinishedAt(windowEnd);
+        }
+        return digestRunRepository.save(run);
+    }
+
+    private long process(DigestRun run) {
+        if (run.getStatus() != DigestRunStatus.RUNNING) {
+            return 0;
+        }
+        PreparedDigest digest = prepare(run);
+        TokenBucket rate = new TokenBucket(config.getMessagesPerSecond(), Duration.ofSeconds(1).toNanos(), System.nanoTime());
+        long processed = 0;
+        long startedAt = System.nanoTime();
+
+        while (true) {
+            List<DigestRecipientView> segment = readSegment(run.getLastUserId());
+            if (segment.isEmpty()) {
+                finish(run.getId(), DigestRunStatus.COMPLETED);
+                break;
+            }
+            long segmentFailures = sendSegment(segment, digest, rate);
+            if (segmentFailures == segment.size()) {
+                // Probablement une panne SMTP : pas de point de reprise, le run reprendra plus tard
+                log.warn("⚠️ Digest {} : segment entièrement en échec, reprise différée", run.getId());
+                break;
+            }
+            long lastUserId = segment.get(segment.size() - 1).getId();
+            if (!checkpoint(run.getId(), lastUserId, segment.size() - segmentFailures, segmentFailures)) {
+                log.info("⏹️ Digest {} annulé", run.getId());
+                break;
+            }
+            run.setLastUserId(lastUserId);
+            processed += segment.size();
+
+            double seconds = (System.nanoTime() - startedAt) / 1e9;
+            log.info("📰 Digest {} : {} destinataire(s) traités ({} msg/s)",
+                    run.getId(), processed, String.format("%.1f", processed / Math.max(seconds, 1e-3)));
+        }
+        return processed;
+    }
+
+    // 🖨️ Rendu unique du template (les utilisateurs n'ont pas encore de langue : un seul rendu)
+    private PreparedDigest prepare(DigestRun run) {
+        List<Document> documents = documentRepository.findCreatedBetween(
+                run.getWindowStart(), run.getWindowEnd(), Pageable.ofSize(config.getMaxDocuments()));
+        String baseUrl = appProperties.getFrontend().getDocumentUrl();
+
+        List<Map<String, String>> items = new ArrayList<>();
+        StringBuilder text = new StringBuilder("Bonjour ").append(USERNAME_MARK)
+                .append(",\n\nVoici les nouveaux documents publiés cette semaine sur Learn Arabic :\n");
+        for (Document document : documents) {
+            String link = baseUrl == null || baseUrl.isBlank() ? null : baseUrl + "/" + document.getSlug();
+            Map<String, String> item = new HashMap<>();
+            item.put("name", document.getName());
+            item.put("description", document.getDescription());
+            item.put("link", link);
+            items.add(item);
+            text.append("\n- ").append(document.getName());
+            if (link != null) text.append(" : ").append(link);
+        }
+        text.append("\n\nBonne lecture et bon apprentissage !");
+
+        String html = mailService.buildEmailContent(TEMPLATE, Map.of(
+                "username", USERNAME_MARK,
+                "documents", items
+        ));
+        return new PreparedDigest(
+                PlaceholderTemplate.compile(html, USERNAME_MARK),
+                PlaceholderTemplate.compile(text.toString(), USERNAME_MARK)
+        );
+    }
+
+    private List<DigestRecipientView> readSegment(long afterUserId) {
+        return transactionTemplate.execute(status -> {
+            try (Stream<DigestRecipientView> recipients = userRepository
+                    .findByIsVerifiedTrueAndIdGreaterThanOrderByIdAsc(afterUserId, Limit.of(config.getSegmentSize()))) {
+                return recipients.toList();
+            }
+        });
+    }
+
+    /**
+     * Envoie un segment en lots parallèles, au débit configuré.
+     * Les échecs isolés passent par l'outbox (nouvelles tentatives avec backoff).
+     * @return le nombre d'échecs
+     */
+    private long sendSegment(List<DigestRecipientView> segment, PreparedDigest digest, TokenBucket rate) {
+        List<Future<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < segment.size(); from += config.getBatchSize()) {
+            List<MailService.OutgoingMail> mails = segment
+                    .subList(from, Math.min(from + config.getBatchSize(), segment.size()))
+                    .stream()
+                    .map(recipient -> new MailService.OutgoingMail(
+                            recipient.getEmail(),
+                            SUBJECT,
+                            digest.html().fill(HtmlUtils.htmlEscape(recipient.getUsername())),
+                            digest.text().fill(recipient.getUsername())))
+                    .toList();
+            for (int i = 0; i < mails.size(); i++) {
+                acquire(rate);
+            }
+            batches.add(senders.submit(() -> sendBatch(mails)));
+        }
+
+        long failures = 0;
+        for (Future<Long> batch : batches) {
+            try {
+                failures += batch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Envoi du digest interrompu", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Échec de l'envoi du digest", e.getCause());
+            }
+        }
+        return failures;
+    }
+
+    private long sendBatch(List<MailService.OutgoingMail> mails) {
+        Map<Integer, RuntimeException> failures = mailService.sendBatch(mails);
+        sent.increment(mails.size() - failures.size());
+        failed.increment(failures.size());
+        // Destinataires refusés ou incident ponctuel : confiés à l'outbox (nouvelles tentatives).
+        // Si tout le lot échoue (serveur indisponible), le segment sera repris en entier.
+        if (failures.size() < mails.size()) {
+            failures.keySet().forEach(index -> {
+                MailService.OutgoingMail mail = mails.get(index);
+                mailService.enqueueMail(mail.to(), mail.subject(), mail.bodyHtml(), mail.bodyText());
+            });
+        }
+        return failures.size();
+    }
+
+    private static void acquire(TokenBucket rate) {
+        long wait;
+        while ((wait = rate.tryConsume(System.nanoTime())) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * 🔖 Enregistre le point de reprise.
+     * @return false si le run a été annulé entre-temps
+     */
+    private boolean checkpoint(Long runId, long lastUserId, long sentCount, long failedCount) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            DigestRun run = digestRunRepository.findById(runId).orElse(null);
+            if (run == null || run.getStatus() != DigestRunStatus.RUNNING) {
+                return false;
+            }
+            run.setLastUserId(lastUserId);
+            run.setSentCount(run.getSentCount() + sentCount);
+            run.setFailedCount(run.getFailedCount() + failedCount);
+            return true;
+        }));
+    }
+
+    private void finish(Long runId, DigestRunStatus status) {
+        transactionTemplate.executeWithoutResult(tx -> digestRunRepository.findById(runId).ifPresent(run -> {
+            if (run.getStatus() == DigestRunStatus.RUNNING) {
+                run.setStatus(status);
+                run.setFinishedAt(LocalDateTime.now());
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        senders.shutdown();
+    }
+}
@@ -0,0 +1,378 @@
+package com.backend.service;
+
+import com.backend.dto.category.CategoryResponse;
+import com.backend.dto.common.PagedResponse;
+import com.backend.dto.document.DocumentResponse;
+import com.backend.enums.PaginationMode;
+import com.backend.exception.BadRequestException;
+import com.backend.model.Category;
+import com.backend.model.Document;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * 📋 Modèle de lecture des listes de documents : table à plat {@code document_listing}
+ * (document + slug, nom et chemin de sa catégorie), écrite dans la transaction de chaque
+ * écriture (DocumentService, CategoryService) et lue en JDBC, sans hydratation d'entités.
+ * Les compteurs de catégorie viennent de la photographie du catalogue : les stocker ici
+ * obligerait à réécrire les lignes de tous les ancêtres à chaque document publié.
+ */
+@Slf4j
+@Service
+public class DocumentListingService {
+
+    static final String REBUILD_LISTING_JOB = "rebuild-document-listing";
+
+    private static final String COLUMNS = """
+            document_id, slug, name, description, url_pdf, position, created_at, updated_at,
+            category_id, category_slug, category_name, category_description, category_path
+            """;
+
+    private static final String UPSERT = "INSERT INTO document_listing (" + COLUMNS + """
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (document_id) DO UPDATE SET
+                slug = EXCLUDED.slug, name = EXCLUDED.name, description = EXCLUDED.description,
+                url_pdf = EXCLUDED.url_pdf, position = EXCLUDED.position,
+                created_at = EXCLUDED.created_at, updated_at = EXCLUDED.updated_at,
+                category_id = EXCLUDED.category_id, category_slug = EXCLUDED.category_slug,
+                category_name = EXCLUDED.category_name, category_description = EXCLUDED.category_description,
+                category_path = EXCLUDED.category_path
+            """;
+
+    private static final String REBUILD = "INSERT INTO document_listing (" + COLUMNS + """
+            )
+            SELECT d.id, d.slug, d.name, d.description, d.url_pdf, d.position, d.created_at, d.updated_at,
+                   c.id, c.slug, c.name, c.description, c.path
+            FROM documents d
+            JOIN categories c ON c.id = d.category_id
+            WHERE c.deleted_at IS NULL
+            """;
+
+    private static final String IS_STALE = """
+            SELECT (SELECT count(*) FROM document_listing)
+                   <> (SELECT count(*) FROM documents d JOIN categories c ON c.id = d.category_id
+                       WHERE c.deleted_at IS NULL)
+            """;
+
+    private static final String SELECT_CATEGORY =
+            "SELECT id, path FROM categories WHERE slug = ? AND deleted_at IS NULL";
+
+    // Tris acceptés (propriétés de Pageable) → colonnes indexées
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "created_at",
+            "position", "position",
+            "id", "document_id");
+
+    private record CategoryRef(long id, String path) {
+    }
+
+    // Ligne lue en mode curseur : la réponse et la clé de tri dont est tiré le curseur suivant
+    private record Keyed(DocumentResponse response, String position) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobRunner clusterJobRunner;
+    private final CategoryCatalog categoryCatalog;
+
+    public DocumentListingService(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  ClusterJobRunner clusterJobRunner,
+                                  CategoryCatalog categoryCatalog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterJobRunner = clusterJobRunner;
+        this.categoryCatalog = categoryCatalog;
+    }
+
+    // === Écritures : dans la transaction de l'appelant ===
+
+    /**
+     * Crée ou remplace la ligne du document (entité flushée : dates renseignées).
+     */
+    public void save(Document document) {
+        Category category = document.getCategory();
+        jdbcTemplate.update(UPSERT,
+                document.getId(), document.getSlug(), document.getName(), document.getDescription(),
+                document.getUrlPdf(), document.getPosition(), document.getCreatedAt(), document.getUpdatedAt(),
+                category.getId(), category.getSlug(), category.getName(), category.getDescription(),
+                category.getPath());
+    }
+
+    public void delete(Long documentId) {
+        jdbcTemplate.update("DELETE FROM document_listing WHERE document_id = ?", documentId);
+    }
+
+    // Sous-arbre masqué : ses documents sortent des listes avec lui
+    public void deleteCategoryTree(String path) {
+        jdbcTemplate.update("DELETE FROM document_listing WHERE category_path LIKE ?", path + "%");
+    }
+
+    // === Lectures ===
+
+    /**
+     * @param includeDescendants inclut les documents de toutes les sous-catégories (préfixe du chemin)
+     * @param mode               EXACT (COUNT), SLICE (pas de total) ou APPROXIMATE (compteurs de catégorie)
+     */
+    public PagedResponse<DocumentResponse> findByCategory(String categorySlug, boolean includeDescendants,
+                                                          Pageable pageable, PaginationMode mode) {
+        CategoryRef category = findCategory(categorySlug);
+
+        String where = includeDescendants ? "category_path LIKE ?" : "category_id = ?";
+        Object filter = includeDescendants ? category.path() + "%" : category.id();
+        int size = pageable.getPageSize();
+        // Hors mode exact, une ligne de plus que la page dit s'il en reste une, sans compter
+        int limit = mode == PaginationMode.EXACT ? size : size + 1;
+
+        List<DocumentResponse> content = jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM document_listing WHERE " + where
+                        + " ORDER BY " + orderBy(pageable.getSort()) + " LIMIT ? OFFSET ?",
+                rowMapper(), filter, limit, pageable.getOffset());
+
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        return switch (mode) {
+            case SLICE -> PagedResponse.fromSlice(content, pageable.getPageNumber(), size, hasNext);
+            case APPROXIMATE -> {
+                // Compteurs de la photographie du catalogue : aucune requête
+                CategorySnapshot snapshot = categoryCatalog.snapshot();
+                int index = snapshot.indexOf(categorySlug);
+                if (index < 0) {
+                    // Catégorie plus récente que la photographie : total exact
+                    yield exactPage(content, pageable, where, filter);
+                }
+                long total = includeDescendants ? snapshot.totalCountAt(index) : snapshot.directCountAt(index);
+                yield PagedResponse.fromApproximate(content, pageable.getPageNumber(), size, total, hasNext);
+            }
+            default -> exactPage(content, pageable, where, filter);
+        };
+    }
+
+    // Total compté seulement si la page ne suffit pas à le déduire (comme Spring Data)
+    private PagedResponse<DocumentResponse> exactPage(List<DocumentResponse> content, Pageable pageable,
+                                                      String where, Object filter) {
+        var page = PageableExecutionUtils.getPage(content, pageable, () -> jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM document_listing WHERE " + where, Long.class, filter));
+        return PagedResponse.fromPage(page);
+    }
+
+    /**
+     * 🔖 Pagination par curseur (keyset) : la page suivante reprend strictement après la dernière
+     * ligne lue, par un parcours d'index (category_id, created_at, document_id) ; coût constant
+     * quelle que soit la profondeur, sans doublon ni saut si des documents sont publiés entre-temps.
+     * En tri par position, les documents pas encore ordonnés (position nulle) viennent en fin de liste
+     * (NULLS LAST, comme la pagination par numéro de page), par id : seconde phase du parcours.
+     * Avec les sous-catégories, l'index (category_path, created_at, document_id) borne le parcours
+     * au sous-arbre mais le tri reste à faire sur ses lignes.
+     *
+     * @param after curseur renvoyé par la page précédente, vide ou null pour la première page
+     */
+    public PagedResponse<DocumentResponse> findByCategoryAfter(String categorySlug, boolean includeDescendants,
+                                                               boolean byPosition, String after, int size) {
+        CategoryRef category = findCategory(categorySlug);
+
+        String select = "SELECT " + COLUMNS + " FROM document_listing WHERE "
+                + (includeDescendants ? "category_path LIKE ?" : "category_id = ?");
+        Object filter = includeDescendants ? category.path() + "%" : category.id();
+        String[] cursor = after == null || after.isBlank() ? null : decodeCursor(after, byPosition);
+        // Une ligne de plus que demandé : sa présence dit s'il reste une page, sans compter
+        int limit = size + 1;
+
+        List<Keyed> rows;
+        if (!byPosition) {
+            rows = cursor == null
+                    ? seek(select + " ORDER BY created_at DESC, document_id DESC LIMIT ?", filter, limit)
+                    : seek(select + " AND (created_at, document_id) < (?, ?)"
+                                    + " ORDER BY created_at DESC, document_id DESC LIMIT ?",
+                            filter, parseTimestamp(cursor[1]), parseId(cursor[2]), limit);
+        } else {
+            // Clé vide dans le curseur : la page précédente s'arrêtait déjà parmi les positions nulles
+            boolean inNulls = cursor != null && cursor[1].isEmpty();
+            rows = new ArrayList<>();
+            if (!inNulls) {
+                rows.addAll(cursor == null
+                        ? seek(select + " AND position IS NOT NULL ORDER BY position ASC, document_id ASC LIMIT ?",
+                                filter, limit)
+                        : seek(select + " AND (position, document_id) > (?, ?)"
+                                        + " ORDER BY position ASC, document_id ASC LIMIT ?",
+                                filter, cursor[1], parseId(cursor[2]), limit));
+            }
+            if (rows.size() < limit) {
+                rows.addAll(inNulls
+                        ? seek(select + " AND position IS NULL AND document_id > ? ORDER BY document_id ASC LIMIT ?",
+                                filter, parseId(cursor[2]), limit - rows.size())
+                        : seek(select + " AND position IS NULL ORDER BY document_id ASC LIMIT ?",
+                                filter, limit - rows.size()));
+            }
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Keyed last = rows.get(size - 1);
+            String sortKey = byPosition
+                    ? (last.position() == null ? "" : last.position())
+                    : last.response().getCreatedAt().toString();
+            nextCursor = encodeCursor(byPosition, sortKey, last.response().getId());
+        }
+        return PagedResponse.fromCursor(rows.stream().map(Keyed::response).toList(), size, nextCursor);
+    }
+
+    private List<Keyed> seek(String sql, Object... args) {
+        RowMapper<DocumentResponse> mapper = rowMapper();
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new Keyed(mapper.mapRow(rs, rowNum), rs.getString("position")), args);
+    }
+
+    public List<DocumentResponse> findLatest(int limit) {
+        return jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM document_listing ORDER BY created_at DESC, document_id DESC LIMIT ?",
+                rowMapper(), limit);
+    }
+
+    // === Reconstruction complète ===
+
+    /**
+     * 🔁 Reconstruit toute la table depuis documents/categories, en une transaction :
+     * les lecteurs voient l'ancienne version jusqu'au commit.
+     *
+     * @return le nombre de lignes écrites, ou -1 si une reconstruction est déjà en cours
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public long rebuild() {
+        return clusterJobRunner.run(REBUILD_LISTING_JOB, this::rebuildAll);
+    }
+
+    // Base existante (première mise en service) ou dérive détectée : reconstruction au démarrage
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() {
+        clusterJobRunner.run(REBUILD_LISTING_JOB, () ->
+                Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_STALE, Boolean.class)) ? rebuildAll() : 0);
+    }
+
+    private long rebuildAll() {
+        int rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM document_listing");
+            return jdbcTemplate.update(REBUILD);
+        });
+        log.info("📋 Liste des documents reconstruite : {} ligne(s)", rows);
+        return rows;
+    }
+
+    // Catégorie lue dans la photographie du catalogue : la liste tient en une requête.
+    // Après un déplacement ou une suppression, la photographie retarde au plus du délai de
+    // reconstruction (app.catalog.rebuild-delay) ; catégorie plus récente qu'elle : lue en base
+    private CategoryRef findCategory(String categorySlug) {
+        CategorySnapshot snapshot = categoryCatalog.snapshot();
+        int index = snapshot.indexOf(categorySlug);
+        if (index >= 0) {
+            return new CategoryRef(snapshot.idAt(index), snapshot.pathAt(index));
+        }
+        return jdbcTemplate.query(SELECT_CATEGORY,
+                        (rs, rowNum) -> new CategoryRef(rs.getLong("id"), rs.getString("path")), categorySlug)
+                .stream().findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Catégorie introuvable"));
+    }
+
+    // Curseur opaque : "mode:clé de tri:id" en base64 URL ; le mode évite de rejouer un curseur sur un autre tri.
+    // Les clés d'ordre ne sont jamais vides : une clé vide marque une position nulle
+    private static String encodeCursor(boolean byPosition, String sortKey, long id) {
+        String raw = (byPosition ? "p" : "d") + "|" + sortKey + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor, boolean byPosition) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Curseur invalide");
+        }
+        if (parts.length != 3 || !parts[0].equals(byPosition ? "p" : "d")) {
+            throw new BadRequestException("Curseur invalide pour ce tri");
+        }
+        return parts;
+    }
+
+    private static LocalDateTime parseTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Curseur invalide");
+        }
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Curseur invalide");
+        }
+    }
+
+    private static String orderBy(Sort sort) {
+        List<String> columns = new ArrayList<>();
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new BadRequestException("Tri non pris en charge : " + order.getProperty());
+            }
+            columns.add(column);
+            joiner.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        // Ordre total : l'id départage les ex æquo
+        if (!columns.contains("document_id")) {
+            joiner.add("document_id" + (sort.isSorted() && sort.iterator().next().isAscending() ? " ASC" : " DESC"));
+        }
+        return joiner.toString();
+    }
+
+    // Compteurs lus dans la photographie du catalogue, une fois par requête
+    private RowMapper<DocumentResponse> rowMapper() {
+        CategorySnapshot snapshot = categoryCatalog.snapshot();
+        return (rs, rowNum) -> {
+            int index = snapshot.indexOf(rs.getString("category_slug"));
+            CategoryResponse category = CategoryResponse.builder()
+                    .id(rs.getLong("category_id"))
+                    .name(rs.getString("category_name"))
+                    .description(rs.getString("category_description"))
+                    .slug(rs.getString("category_slug"))
+                    .count(index < 0 ? 0 : snapshot.directCountAt(index))
+                    .totalCount(index < 0 ? 0 : snapshot.totalCountAt(index))
+                    .children(List.of())
+                    .build();
+            return DocumentResponse.builder()
+                    .id(rs.getLong("document_id"))
+                    .slug(rs.getString("slug"))
+                    .name(rs.getString("name"))
+                    .description(rs.getString("description"))
+                    .urlPdf(rs.getString("url_pdf"))
+                    .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                    .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                    .category(category)
+                    .build();
+        };
+    }
+}
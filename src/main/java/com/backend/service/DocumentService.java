@@ -1,25 +1,35 @@
 package com.backend.service;
 
 import com.backend.dto.common.PagedResponse;
+import com.backend.dto.common.PositionRequest;
 import com.backend.dto.document.CreateDocumentRequest;
 import com.backend.dto.document.DocumentResponse;
 import com.backend.dto.document.UpdateDocumentRequest;
-import com.backend.exception.ResourceConflictException;
+import com.backend.enums.PaginationMode;
+import com.backend.event.CatalogChangedEvent;
+import com.backend.exception.BadRequestException;
 import com.backend.mapper.DocumentMapper;
 import com.backend.model.Category;
 import com.backend.model.Document;
 import com.backend.repository.CategoryRepository;
 import com.backend.repository.DocumentRepository;
+import com.backend.util.OrderKey;
 import com.backend.util.SlugUtil;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DocumentService {
@@ -27,58 +37,97 @@ public class DocumentService {
     private final DocumentRepository documentRepository;
     private final CategoryRepository categoryRepository;
     private final CloudinaryService cloudinaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentListingService documentListingService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * ☁️ Le PDF est envoyé hors transaction (aucune connexion tenue pendant l'upload), sous un
+     * public_id unique : un doublon de nom ne peut plus écraser le fichier d'un document existant.
+     * Si l'insertion échoue ensuite, le fichier envoyé est supprimé.
+     */
     @PreAuthorize("hasRole('ADMIN')")
     public DocumentResponse createDocument(CreateDocumentRequest request) {
-        Category category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Catégorie introuvable"));
-
-        String normalizedName = request.getName().trim().toLowerCase();
-
-        if (documentRepository.existsByName(normalizedName)) {
-            throw new IllegalArgumentException("Un document avec ce nom existe déjà");
-        }
-
         if (!"application/pdf".equalsIgnoreCase(request.getFile().getContentType())) {
             throw new IllegalArgumentException("Seuls les fichiers PDF sont autorisés.");
         }
 
+        String normalizedName = request.getName().trim().toLowerCase();
         String slug = SlugUtil.generateSlug(normalizedName);
-        if (documentRepository.existsBySlug(slug)) {
-            throw new IllegalArgumentException("Un document avec ce slug existe déjà");
-        }
+        String urlPdf = cloudinaryService.uploadPdf(request.getFile(), assetId(slug));
+
+        return persistOrDiscard(urlPdf, () -> {
+            Category category = categoryRepository.findVisibleById(request.getCategoryId())
+                    .orElseThrow(() -> new EntityNotFoundException("Catégorie introuvable"));
+
+            Document document = Document.builder()
+                    .name(normalizedName)
+                    .description(request.getDescription().trim())
+                    .slug(slug)
+                    .category(category)
+                    .urlPdf(urlPdf)
+                    .position(OrderKey.between(documentRepository.findLastPosition(category.getId()), null))
+                    .build();
 
-        String urlPdf = cloudinaryService.uploadPdf(request.getFile(), slug);
+            // Doublon nom / slug → contraintes uk_documents_*
+            Document saved = documentRepository.saveAndFlush(document);
+            categoryRepository.addDocuments(category.getId(), category.getPath(), 1);
+            documentListingService.save(saved);
+            eventPublisher.publishEvent(new CatalogChangedEvent("document created"));
+            // Relu après la mise à jour des compteurs (contexte vidé) : la catégorie renvoyée est à jour
+            return DocumentMapper.toResponse(documentRepository.findVisibleBySlug(slug).orElseThrow());
+        });
+    }
 
-        Document document = Document.builder()
-                .name(normalizedName)
-                .description(request.getDescription().trim())
-                .slug(slug)
-                .category(category)
-                .urlPdf(urlPdf)
-                .build();
+    // public_id Cloudinary : slug + suffixe aléatoire, jamais partagé entre deux envois
+    private static String assetId(String slug) {
+        return slug + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
 
-        Document saved = documentRepository.save(document);
-        return DocumentMapper.toResponse(saved);
+    /**
+     * Exécute l'écriture en base dans sa propre transaction ; en cas d'échec (doublon, catégorie
+     * supprimée entre-temps…), le PDF déjà envoyé est supprimé avant de propager l'erreur.
+     */
+    private DocumentResponse persistOrDiscard(String uploadedUrl, Supplier<DocumentResponse> persist) {
+        try {
+            return transactionTemplate.execute(status -> persist.get());
+        } catch (RuntimeException e) {
+            if (uploadedUrl != null) {
+                try {
+                    cloudinaryService.deletePdfs(List.of(uploadedUrl));
+                } catch (RuntimeException cleanup) {
+                    log.warn("⚠️ PDF orphelin non supprimé : {}", uploadedUrl, cleanup);
+                }
+            }
+            throw e;
+        }
     }
 
     @Transactional(readOnly = true)
     public DocumentResponse getBySlug(String slug) {
-        Document doc = documentRepository.findBySlug(slug)
+        Document doc = documentRepository.findVisibleBySlug(slug)
                 .orElseThrow(() -> new EntityNotFoundException("Document introuvable"));
         return DocumentMapper.toResponse(doc);
     }
 
+    /**
+     * @param includeDescendants inclut les documents de toutes les sous-catégories (préfixe du chemin)
+     * @param mode               calcul du total : exact, absent (slice) ou approché
+     */
     @Transactional(readOnly = true)
-    public PagedResponse<DocumentResponse> getDocumentsByCategorySlug(String slugCategory, Pageable pageable) {
-        Category category = categoryRepository.findBySlug(slugCategory)
-                .orElseThrow(() -> new EntityNotFoundException("Catégorie introuvable"));
-
-        var pageDocs = documentRepository.findByCategory_Id(category.getId(), pageable)
-                .map(DocumentMapper::toResponse);
+    public PagedResponse<DocumentResponse> getDocumentsByCategorySlug(String slugCategory, boolean includeDescendants,
+                                                                      Pageable pageable, PaginationMode mode) {
+        // 📋 Lu dans le modèle de lecture à plat (page et total dans la même transaction)
+        return documentListingService.findByCategory(slugCategory, includeDescendants, pageable, mode);
+    }
 
-        return PagedResponse.fromPage(pageDocs);
+    /**
+     * 🔖 Mode curseur : {@code after} vaut le {@code nextCursor} de la page précédente (vide au départ).
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<DocumentResponse> getDocumentsByCategorySlugAfter(String slugCategory, boolean includeDescendants,
+                                                                           boolean byPosition, String after, int size) {
+        return documentListingService.findByCategoryAfter(slugCategory, includeDescendants, byPosition, after, size);
     }
 
     /**
@@ -87,76 +136,134 @@ public class DocumentService {
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public String deleteDocument(String slug) {
-        Document document = documentRepository.findBySlug(slug)
+        Document document = documentRepository.findVisibleBySlug(slug)
                 .orElseThrow(() -> new EntityNotFoundException("Document introuvable"));
 
+        Category category = document.getCategory();
         documentRepository.delete(document);
+        categoryRepository.addDocuments(category.getId(), category.getPath(), -1);
+        documentListingService.delete(document.getId());
+        eventPublisher.publishEvent(new CatalogChangedEvent("document deleted"));
         return "Document supprimé avec succès";
     }
 
-    @Transactional
+    /**
+     * Même séquence que {@link #createDocument} : nouveau PDF envoyé d'abord, hors transaction,
+     * puis mise à jour en base ; l'ancien fichier n'est supprimé qu'une fois la mise à jour validée.
+     */
     @PreAuthorize("hasRole('ADMIN')")
     public DocumentResponse updateDocument(String slug, UpdateDocumentRequest request) {
-        Document document = documentRepository.findBySlug(slug)
-                .orElseThrow(() -> new EntityNotFoundException("Document introuvable"));
+        if (request.getFile() != null
+                && !"application/pdf".equalsIgnoreCase(request.getFile().getContentType())) {
+            throw new IllegalArgumentException("Seuls les fichiers PDF sont autorisés.");
+        }
+
+        String normalizedName = request.getName() != null && !request.getName().isBlank()
+                ? request.getName().trim().toLowerCase()
+                : null;
+        String newUrl = request.getFile() != null
+                ? cloudinaryService.uploadPdf(request.getFile(),
+                        assetId(normalizedName != null ? SlugUtil.generateSlug(normalizedName) : slug))
+                : null;
+        String[] previousUrl = new String[1];
 
-        // === Nom & Slug ===
-        if (request.getName() != null && !request.getName().isBlank()) {
-            String normalizedName = request.getName().trim().toLowerCase();
+        DocumentResponse response = persistOrDiscard(newUrl, () -> {
+            Document document = documentRepository.findVisibleBySlug(slug)
+                    .orElseThrow(() -> new EntityNotFoundException("Document introuvable"));
 
-            boolean sameName = normalizedName.equals(document.getName());
-            if (!sameName && documentRepository.existsByName(normalizedName)) {
-                throw new ResourceConflictException("Un document avec ce nom existe déjà");
+            // === Nom & Slug ===
+            if (normalizedName != null) {
+                document.setName(normalizedName);
+                document.setSlug(SlugUtil.generateSlug(normalizedName));
             }
 
-            String newSlug = SlugUtil.generateSlug(normalizedName);
-            boolean sameSlug = newSlug.equals(document.getSlug());
-            if (!sameSlug && documentRepository.existsBySlug(newSlug)) {
-                throw new ResourceConflictException("Un document avec ce slug existe déjà");
+            // === Description ===
+            if (request.getDescription() != null) {
+                document.setDescription(request.getDescription().trim());
             }
 
-            document.setName(normalizedName);
-            document.setSlug(newSlug);
-        }
+            // === Catégorie ===
+            if (request.getCategoryId() != null) {
+                Category newCategory = categoryRepository.findVisibleById(request.getCategoryId())
+                        .orElseThrow(() -> new EntityNotFoundException("Catégorie introuvable"));
+                Category oldCategory = document.getCategory();
+                if (!newCategory.getId().equals(oldCategory.getId())) {
+                    document.setCategory(newCategory);
+                    // En fin de liste dans sa nouvelle catégorie
+                    document.setPosition(OrderKey.between(documentRepository.findLastPosition(newCategory.getId()), null));
+                    categoryRepository.addDocuments(oldCategory.getId(), oldCategory.getPath(), -1);
+                    categoryRepository.addDocuments(newCategory.getId(), newCategory.getPath(), 1);
+                    // Les comptes par catégorie changent
+                    eventPublisher.publishEvent(new CatalogChangedEvent("document moved"));
+                }
+            }
 
-        // === Description ===
-        if (request.getDescription() != null) {
-            document.setDescription(request.getDescription().trim());
-        }
+            // === Fichier PDF ===
+            if (newUrl != null) {
+                previousUrl[0] = document.getUrlPdf();
+                document.setUrlPdf(newUrl);
+            }
 
-        // === Catégorie ===
-        if (request.getCategoryId() != null) {
-            Category newCategory = categoryRepository.findById(request.getCategoryId())
-                    .orElseThrow(() -> new EntityNotFoundException("Catégorie introuvable"));
-            document.setCategory(newCategory);
-        }
+            // Doublon nom / slug → contraintes uk_documents_*. Après un changement de catégorie, document est
+            // détaché (compteurs mis à jour, contexte vidé) : le merge relit la catégorie, compteurs compris
+            Document saved = documentRepository.saveAndFlush(document);
+            documentListingService.save(saved);
+            return DocumentMapper.toResponse(saved);
+        });
 
-        // === Fichier PDF ===
-        if (request.getFile() != null) {
-            if (!"application/pdf".equalsIgnoreCase(request.getFile().getContentType())) {
-                throw new IllegalArgumentException("Seuls les fichiers PDF sont autorisés.");
+        if (previousUrl[0] != null && !previousUrl[0].isBlank()) {
+            try {
+                cloudinaryService.deletePdfs(List.of(previousUrl[0]));
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Ancien PDF non supprimé : {}", previousUrl[0], e);
             }
+        }
+        return response;
+    }
 
-            String newUrl = cloudinaryService.uploadPdf(request.getFile(), document.getSlug());
-            document.setUrlPdf(newUrl);
+    /**
+     * 🔢 Déplace un document dans sa catégorie : seule sa clé d'ordre est réécrite.
+     */
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public DocumentResponse moveDocument(String slug, PositionRequest request) {
+        if (request.getAfterSlug() == null && request.getBeforeSlug() == null) {
+            throw new BadRequestException("Indiquez le document précédent ou suivant");
         }
+        Document document = documentRepository.findVisibleBySlug(slug)
+                .orElseThrow(() -> new EntityNotFoundException("Document introuvable"));
+        String after = siblingPosition(document, request.getAfterSlug());
+        String before = siblingPosition(document, request.getBeforeSlug());
 
-        Document saved = documentRepository.save(document);
-        return DocumentMapper.toResponse(saved);
+        document.setPosition(OrderKey.between(after, before));
+        documentListingService.save(documentRepository.saveAndFlush(document));
+        return DocumentMapper.toResponse(document);
     }
 
+    // Clé d'un voisin, qui doit appartenir à la même catégorie
+    private String siblingPosition(Document document, String siblingSlug) {
+        if (siblingSlug == null) return null;
+        Document sibling = documentRepository.findVisibleBySlug(siblingSlug)
+                .orElseThrow(() -> new EntityNotFoundException("Document introuvable"));
+        if (sibling.getId().equals(document.getId())
+                || !sibling.getCategory().getId().equals(document.getCategory().getId())) {
+            throw new BadRequestException("Les documents voisins doivent être dans la même catégorie");
+        }
+        if (sibling.getPosition() == null) {
+            throw new BadRequestException("Ordre en cours d'initialisation, réessayez plus tard");
+        }
+        return sibling.getPosition();
+    }
 
     @Transactional(readOnly = true)
     public List<DocumentResponse> getLastDocuments(int limit){
-        var pageable = Pageable.ofSize(limit);
-        var docs = documentRepository.findAllByOrderByCreatedAtDesc(pageable);
-        return DocumentMapper.toResponseList(docs);
+        return documentListingService.findLatest(limit);
     }
 
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
     public List<DocumentResponse> getAllDocumentsByAdmin(){
-        var docs = documentRepository.findAll();
+        var docs = documentRepository.findAllVisible();
         return DocumentMapper.toResponseList(docs);
     }
 }
@@ -1,12 +1,17 @@
 package com.backend.service;
 
+import com.backend.config.AppProperties;
 import com.backend.dto.user.UserResponse;
 import com.backend.enums.UserRole;
+import com.backend.util.DigestUtil;
+import com.backend.util.ExpiringLruCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -20,8 +25,31 @@ public class JwtTokenService {
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    private final AppProperties appProperties;
+
+    // 🔑 Clé et parser construits une seule fois (le parser est immuable et thread-safe)
+    private Key signingKey;
+    private JwtParser parser;
+
+    // ⚡ Claims déjà vérifiés, indexés par l'empreinte SHA-256 du token
+    private ExpiringLruCache<String, Claims> verifiedClaims;
+
+    public JwtTokenService(AppProperties appProperties) {
+        this.appProperties = appProperties;
+    }
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        AppProperties.JwtCache config = appProperties.getSecurity().getJwtCache();
+        this.verifiedClaims = new ExpiringLruCache<>(config.getMaxSize(), config.getTtl().toNanos());
+    }
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     /**
@@ -83,14 +111,27 @@ public class JwtTokenService {
     }
 
     /**
-     * Extraction claims
+     * Extraction claims : un token déjà vérifié est servi depuis le cache,
+     * sinon la signature est vérifiée puis le résultat mis en cache
+     * (jamais au-delà de l'expiration du token).
      */
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String key = DigestUtil.sha256Base64(token);
+        Claims cached = verifiedClaims.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+
+        long ttlNanos = appProperties.getSecurity().getJwtCache().getTtl().toNanos();
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            ttlNanos = Math.min(ttlNanos, remainingMillis * 1_000_000L);
+        }
+        verifiedClaims.put(key, claims, ttlNanos);
+        return claims;
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
@@ -0,0 +1,216 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import com.backend.enums.MailOutboxStatus;
+import com.backend.event.MailQueuedEvent;
+import com.backend.model.MailOutbox;
+import com.backend.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 📬 Envoie les mails de l'outbox en arrière-plan.
+ * Les lignes dues sont réclamées par lots (FOR UPDATE SKIP LOCKED) et leur
+ * prochaine tentative repoussée de la durée du bail, puis envoyées hors transaction
+ * en sous-lots parallèles (une connexion SMTP du pool par sous-lot). En cas d'échec : nouvel essai avec backoff exponentiel,
+ * abandon (FAILED) après maxAttempts.
+ */
+@Slf4j
+@Component
+public class MailOutboxDispatcher {
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailService mailService;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties.Outbox config;
+
+    private final ThreadPoolExecutor workers;
+    // Réveils après commit : un seul en attente suffit, les suivants sont ignorés
+    private final ThreadPoolExecutor wakeUps;
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    private final AtomicLong depth = new AtomicLong();
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+    private final Timer deliveryDelay;
+    private final Counter abandoned;
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository,
+                                MailService mailService,
+                                TransactionTemplate transactionTemplate,
+                                AppProperties appProperties,
+                                MeterRegistry meterRegistry) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailService = mailService;
+        this.transactionTemplate = transactionTemplate;
+        this.config = appProperties.getMail().getOutbox();
+
+        this.workers = new ThreadPoolExecutor(
+                config.getWorkers(), config.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                namedThreads("mail-outbox-"));
+        this.wakeUps = new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                namedThreads("mail-outbox-wakeup-"),
+                new ThreadPoolExecutor.DiscardPolicy());
+
+        Gauge.builder("mail.outbox.depth", depth, AtomicLong::get)
+                .description("Mails en attente d'envoi")
+                .register(meterRegistry);
+        this.sendSuccess = Timer.builder("mail.outbox.send").tag("outcome", "success").register(meterRegistry);
+        this.sendFailure = Timer.builder("mail.outbox.send").tag("outcome", "failure").register(meterRegistry);
+        this.deliveryDelay = Timer.builder("mail.outbox.delivery.delay")
+                .description("Délai entre la mise en file et l'envoi effectif")
+                .register(meterRegistry);
+        this.abandoned = Counter.builder("mail.outbox.abandoned").register(meterRegistry);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * ⚡ Un mail vient d'être validé en base : on n'attend pas le prochain passage.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMailQueued(MailQueuedEvent event) {
+        wakeUps.execute(this::dispatch);
+    }
+
+    /**
+     * 🔁 Filet de sécurité : reprend les mails en attente de nouvel essai,
+     * ceux d'un nœud arrêté en cours d'envoi (bail expiré), et met à jour la profondeur.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval:PT5S}")
+    public void poll() {
+        dispatch();
+        depth.set(mailOutboxRepository.countByStatus(MailOutboxStatus.PENDING));
+    }
+
+    public void dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return; // déjà en cours sur ce nœud
+        }
+        try {
+            List<MailOutbox> claimed;
+            do {
+                claimed = claim();
+                // Un sous-lot par worker, envoyé sur une seule connexion SMTP du pool
+                int chunkSize = Math.max(1, (claimed.size() + config.getWorkers() - 1) / config.getWorkers());
+                List<CompletableFuture<Void>> sends = new ArrayList<>();
+                for (int from = 0; from < claimed.size(); from += chunkSize) {
+                    List<MailOutbox> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+                    sends.add(CompletableFuture.runAsync(() -> deliver(chunk), workers));
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            } while (claimed.size() == config.getBatchSize());
+        } catch (RuntimeException e) {
+            log.error("❌ Échec du dispatch de l'outbox", e);
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    private List<MailOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<MailOutbox> due = mailOutboxRepository.claimDue(
+                    MailOutboxStatus.PENDING, now, PageRequest.of(0, config.getBatchSize()));
+            LocalDateTime leaseUntil = now.plus(config.getLease());
+            for (MailOutbox mail : due) {
+                mail.setAttempts(mail.getAttempts() + 1);
+                mail.setNextAttemptAt(leaseUntil);
+            }
+            return due;
+        });
+    }
+
+    private void deliver(List<MailOutbox> mails) {
+        long start = System.nanoTime();
+        Map<Integer, RuntimeException> failures = mailService.sendBatch(mails.stream()
+                .map(mail -> new MailService.OutgoingMail(
+                        mail.getRecipient(), mail.getSubject(), mail.getBodyHtml(), mail.getBodyText()))
+                .toList());
+        // Latence moyenne par message du sous-lot
+        long perMessage = (System.nanoTime() - start) / Math.max(1, mails.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < mails.size(); i++) {
+            MailOutbox mail = mails.get(i);
+            RuntimeException failure = failures.get(i);
+            if (failure == null) {
+                sendSuccess.record(perMessage, TimeUnit.NANOSECONDS);
+                mailOutboxRepository.markSent(mail.getId(), now);
+                if (mail.getCreatedAt() != null) {
+                    deliveryDelay.record(Duration.between(mail.getCreatedAt(), now));
+                }
+            } else {
+                sendFailure.record(perMessage, TimeUnit.NANOSECONDS);
+                handleFailure(mail, failure);
+            }
+        }
+    }
+
+    private void handleFailure(MailOutbox mail, RuntimeException e) {
+        String error = truncate(e.getMessage());
+        if (mail.getAttempts() >= config.getMaxAttempts()) {
+            abandoned.increment();
+            mailOutboxRepository.markFailed(mail.getId(), error);
+            log.error("❌ Mail {} abandonné après {} tentatives : {}", mail.getId(), mail.getAttempts(), error);
+        } else {
+            Duration backoff = backoff(mail.getAttempts());
+            mailOutboxRepository.reschedule(mail.getId(), LocalDateTime.now().plus(backoff), error);
+            log.warn("⚠️ Envoi du mail {} échoué (tentative {}), nouvel essai dans {}s",
+                    mail.getId(), mail.getAttempts(), backoff.toSeconds());
+        }
+    }
+
+    // Exponentiel (initial × 2^(n-1)) plafonné, avec ±20 % d'aléa pour étaler les reprises
+    Duration backoff(int attempts) {
+        long initial = config.getInitialBackoff().toMillis();
+        long max = config.getMaxBackoff().toMillis();
+        long delay = initial << Math.min(Math.max(attempts - 1, 0), 20);
+        delay = Math.min(delay, max);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (delay * jitter));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wakeUps.shutdownNow();
+        workers.shutdown();
+    }
+}
@@ -1,16 +1,27 @@
 package com.backend.service;
 
+import com.backend.event.MailQueuedEvent;
+import com.backend.model.MailOutbox;
+import com.backend.repository.MailOutboxRepository;
 import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,6 +29,9 @@ import java.util.Map;
 public class MailService {
     private final JavaMailSender mailSender;
     private final SpringTemplateEngine templateEngine;
+    private final MailOutboxRepository mailOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SmtpTransportPool transportPool;
 
     @Value("${spring.mail.from}")
     private String from;
@@ -28,17 +42,89 @@ public class MailService {
         return templateEngine.process("email/" + templateName, context);
     }
 
+    /**
+     * 📬 Ajoute le mail à l'outbox dans la transaction courante :
+     * il n'est envoyé (par MailOutboxDispatcher) que si la transaction est validée.
+     */
+    @Transactional
+    public void enqueueMail(String to, String subject, String bodyHtml, String bodyText) {
+        MailOutbox mail = mailOutboxRepository.save(MailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .bodyHtml(bodyHtml)
+                .bodyText(bodyText)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new MailQueuedEvent(mail.getId()));
+    }
+
+    public record OutgoingMail(String to, String subject, String bodyHtml, String bodyText) {
+    }
+
     public void sendMail(String to, String subject, String bodyHtml, String bodyText) {
+        RuntimeException failure = sendBatch(List.of(new OutgoingMail(to, subject, bodyHtml, bodyText))).get(0);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 📨 Envoie plusieurs mails sur une même connexion SMTP du pool.
+     * @return les échecs, indexés par position dans la liste (vide si tout est parti)
+     */
+    public Map<Integer, RuntimeException> sendBatch(List<OutgoingMail> mails) {
+        Map<Integer, RuntimeException> failures = new HashMap<>();
+        if (!transportPool.isEnabled()) {
+            for (int i = 0; i < mails.size(); i++) {
+                try {
+                    mailSender.send(createMessage(mails.get(i)));
+                } catch (MailException e) {
+                    failures.put(i, e);
+                }
+            }
+            return failures;
+        }
+
+        SmtpTransportPool.Lease lease;
+        try {
+            lease = transportPool.borrow();
+        } catch (MailException e) {
+            for (int i = 0; i < mails.size(); i++) failures.put(i, e);
+            return failures;
+        }
+        try {
+            for (int i = 0; i < mails.size(); i++) {
+                try {
+                    lease.send(createMessage(mails.get(i)));
+                } catch (SendFailedException e) {
+                    // Destinataire refusé : la connexion reste utilisable
+                    failures.put(i, new MailSendException("Destinataire refusé", e));
+                } catch (MessagingException e) {
+                    // Serveur injoignable même après reconnexion : inutile d'insister sur ce lot
+                    MailSendException failure = new MailSendException("Erreur lors de l'envoi du mail", e);
+                    for (int j = i; j < mails.size(); j++) failures.put(j, failure);
+                    break;
+                } catch (MailException e) {
+                    failures.put(i, e);
+                }
+            }
+        } finally {
+            transportPool.release(lease);
+        }
+        return failures;
+    }
+
+    private MimeMessage createMessage(OutgoingMail mail) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(bodyText != null ? bodyText : "", bodyHtml);
+            helper.setTo(mail.to());
+            helper.setSubject(mail.subject());
+            helper.setText(mail.bodyText() != null ? mail.bodyText() : "", mail.bodyHtml());
             helper.setFrom(String.format("\"LearnArabic\" <%s>", from));
-            mailSender.send(message);
+            return message;
         } catch (MessagingException exception) {
-            throw new MailSendException("Erreur lors de l'envoi du mail", exception);
+            throw new MailPreparationException("Erreur lors de la préparation du mail", exception);
         }
     }
 }
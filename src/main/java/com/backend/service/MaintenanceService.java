@@ -0,0 +1,273 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import com.backend.util.OrderKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * 🧹 Purges planifiées : tokens expirés, comptes jamais vérifiés, outbox des mails.
+ * Chaque lot est une petite transaction guidée par un index (LIMIT + SKIP LOCKED),
+ * pour ne jamais tenir de verrous longs ni de transaction géante.
+ * S'y ajoutent la réconciliation des compteurs de documents des catégories
+ * et le rééquilibrage des clés d'ordre (catégories, documents).
+ */
+@Slf4j
+@Service
+public class MaintenanceService {
+
+    static final String PURGE_TOKENS_JOB = "purge-expired-tokens";
+    static final String PURGE_UNVERIFIED_JOB = "purge-unverified-users";
+    static final String PURGE_OUTBOX_JOB = "purge-mail-outbox";
+    static final String RECONCILE_COUNTERS_JOB = "reconcile-category-counters";
+    static final String REBALANCE_POSITIONS_JOB = "rebalance-positions";
+
+    private static final String DELETE_EXPIRED_TOKENS = """
+            DELETE FROM tokens_checkout
+            WHERE id IN (
+                SELECT id FROM tokens_checkout
+                WHERE expires_at < ?
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            """;
+
+    private static final String DELETE_PROCESSED_MAILS = """
+            DELETE FROM mail_outbox
+            WHERE id IN (
+                SELECT id FROM mail_outbox
+                WHERE created_at < ? AND status <> 'PENDING'
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            """;
+
+    private static final String SELECT_UNVERIFIED_USERS = """
+            SELECT id FROM users
+            WHERE is_verified = false AND created_at < ?
+            ORDER BY created_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    // Recalcule les compteurs depuis les documents (sous-arbre : somme sur les ancêtres de chaque chemin)
+    // et ne réécrit que les lignes qui ont dérivé ; updated_at signale le changement au catalogue.
+    // Écart appliqué en delta : compté et stocké sont lus dans la même photographie, un document créé
+    // ou supprimé entre-temps a déjà ajusté le compteur de la ligne à jour, sans être réécrasé
+    private static final String RECONCILE_CATEGORY_COUNTERS = """
+            WITH direct AS (
+                SELECT c.id, c.path, c.document_count, c.subtree_document_count, count(d.id) AS n
+                FROM categories c
+                LEFT JOIN documents d ON d.category_id = c.id
+                WHERE c.deleted_at IS NULL
+                GROUP BY c.id
+            ), subtree AS (
+                SELECT cast(ancestor AS bigint) AS id, sum(direct.n) AS n
+                FROM direct, unnest(string_to_array(trim(both '/' from direct.path), '/')) AS ancestor
+                GROUP BY ancestor
+            ), drift AS (
+                SELECT direct.id,
+                       direct.n - direct.document_count AS direct_delta,
+                       coalesce(subtree.n, 0) - direct.subtree_document_count AS subtree_delta
+                FROM direct
+                LEFT JOIN subtree ON subtree.id = direct.id
+            )
+            UPDATE categories c
+            SET document_count = c.document_count + drift.direct_delta,
+                subtree_document_count = c.subtree_document_count + drift.subtree_delta,
+                updated_at = now()
+            FROM drift
+            WHERE c.id = drift.id
+              AND (drift.direct_delta <> 0 OR drift.subtree_delta <> 0)
+            """;
+
+    // 🔢 Clé à réécrire : absente, trop longue, ou antérieure au format à tête entière (cf. OrderKey.isValid)
+    private static final String POSITION_TO_REWRITE = """
+            position IS NULL OR length(position) > ?
+            OR position !~ '^[A-Za-z][0-9a-z]+$'
+            OR length(position) <= CASE WHEN ascii(position) >= 97 THEN ascii(position) - 96 ELSE 91 - ascii(position) END
+            OR (length(position) > CASE WHEN ascii(position) >= 97 THEN ascii(position) - 95 ELSE 92 - ascii(position) END
+                AND right(position, 1) = '0')
+            """;
+
+    private static final String SELECT_UNBALANCED_CATEGORY_GROUPS = """
+            SELECT DISTINCT parent_id FROM categories
+            WHERE deleted_at IS NULL AND (%s)
+            LIMIT ?
+            """.formatted(POSITION_TO_REWRITE);
+
+    private static final String SELECT_CATEGORY_GROUP = """
+            SELECT id FROM categories
+            WHERE parent_id IS NOT DISTINCT FROM cast(? AS bigint) AND deleted_at IS NULL
+            ORDER BY position NULLS LAST, created_at, id
+            FOR UPDATE
+            """;
+
+    // updated_at : l'ordre des enfants change dans la photographie du catalogue
+    private static final String UPDATE_CATEGORY_POSITION =
+            "UPDATE categories SET position = ?, updated_at = now() WHERE id = ?";
+
+    private static final String SELECT_UNBALANCED_DOCUMENT_GROUPS = """
+            SELECT DISTINCT category_id FROM documents
+            WHERE %s
+            LIMIT ?
+            """.formatted(POSITION_TO_REWRITE);
+
+    private static final String SELECT_DOCUMENT_GROUP = """
+            SELECT id FROM documents
+            WHERE category_id = ?
+            ORDER BY position NULLS LAST, created_at, id
+            FOR UPDATE
+            """;
+
+    // Le modèle de lecture des listes suit dans la même instruction
+    private static final String UPDATE_DOCUMENT_POSITION = """
+            WITH moved AS (UPDATE documents SET position = ? WHERE id = ? RETURNING id, position)
+            UPDATE document_listing l SET position = moved.position FROM moved WHERE l.document_id = moved.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobRunner clusterJobRunner;
+    private final AppProperties.Maintenance config;
+
+    public MaintenanceService(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ClusterJobRunner clusterJobRunner,
+                              AppProperties appProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterJobRunner = clusterJobRunner;
+        this.config = appProperties.getMaintenance();
+    }
+
+    // ✅ Tokens expirés (utilisés ou non) au-delà de la rétention
+    @Scheduled(cron = "${app.maintenance.token-purge-cron:0 */15 * * * *}")
+    public void purgeExpiredTokens() {
+        if (!config.isEnabled()) return;
+        clusterJobRunner.run(PURGE_TOKENS_JOB, () -> {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(config.getTokenRetention()));
+            return inBatches(() -> transactionTemplate.execute(status ->
+                    jdbcTemplate.update(DELETE_EXPIRED_TOKENS, cutoff, config.getBatchSize())));
+        });
+    }
+
+    // ✅ Comptes non vérifiés trop anciens (leurs tokens sont supprimés dans le même lot)
+    @Scheduled(cron = "${app.maintenance.unverified-purge-cron:0 30 3 * * *}")
+    public void purgeUnverifiedUsers() {
+        if (!config.isEnabled()) return;
+        clusterJobRunner.run(PURGE_UNVERIFIED_JOB, () -> {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(config.getUnverifiedRetention()));
+            return inBatches(() -> transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(
+                        SELECT_UNVERIFIED_USERS, Long.class, cutoff, config.getBatchSize());
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                Long[] idArray = ids.toArray(Long[]::new);
+                jdbcTemplate.update("DELETE FROM tokens_checkout WHERE user_id = ANY(?)",
+                        ps -> ps.setArray(1, bigintArray(ps.getConnection(), idArray)));
+                return jdbcTemplate.update("DELETE FROM users WHERE id = ANY(?)",
+                        ps -> ps.setArray(1, bigintArray(ps.getConnection(), idArray)));
+            }));
+        });
+    }
+
+    // ✅ Mails envoyés ou abandonnés au-delà de la rétention
+    @Scheduled(cron = "${app.maintenance.outbox-purge-cron:0 0 * * * *}")
+    public void purgeMailOutbox() {
+        if (!config.isEnabled()) return;
+        clusterJobRunner.run(PURGE_OUTBOX_JOB, () -> {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(config.getOutboxRetention()));
+            return inBatches(() -> transactionTemplate.execute(status ->
+                    jdbcTemplate.update(DELETE_PROCESSED_MAILS, cutoff, config.getBatchSize())));
+        });
+    }
+
+    // ✅ Compteurs de documents : répare une éventuelle dérive (écriture concurrente, correction manuelle).
+    // Aussi au démarrage, pour initialiser les compteurs d'une base existante.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.maintenance.counter-reconcile-cron:0 15 4 * * *}")
+    public void reconcileCategoryCounters() {
+        if (!config.isEnabled()) return;
+        clusterJobRunner.run(RECONCILE_COUNTERS_JOB, () -> {
+            int repaired = transactionTemplate.execute(status -> jdbcTemplate.update(RECONCILE_CATEGORY_COUNTERS));
+            if (repaired > 0) {
+                log.warn("⚠️ Compteurs de documents corrigés sur {} catégorie(s)", repaired);
+            }
+            return repaired;
+        });
+    }
+
+    // ✅ Clés d'ordre : chaque fratrie concernée reçoit des clés courtes et régulièrement espacées,
+    // dans son ordre actuel (une transaction par fratrie). Au démarrage, attribue les clés manquantes
+    // et convertit les clés de l'ancien format.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.maintenance.position-rebalance-cron:0 45 * * * *}")
+    public void rebalancePositions() {
+        if (!config.isEnabled()) return;
+        clusterJobRunner.run(REBALANCE_POSITIONS_JOB, () -> {
+            long categories = inBatches(() -> rebalanceGroups(
+                    SELECT_UNBALANCED_CATEGORY_GROUPS, SELECT_CATEGORY_GROUP, UPDATE_CATEGORY_POSITION));
+            long documents = inBatches(() -> rebalanceGroups(
+                    SELECT_UNBALANCED_DOCUMENT_GROUPS, SELECT_DOCUMENT_GROUP, UPDATE_DOCUMENT_POSITION));
+            if (categories + documents > 0) {
+                log.info("🔢 Clés d'ordre réécrites : {} fratrie(s) de catégories, {} de documents",
+                        categories, documents);
+            }
+            return categories + documents;
+        });
+    }
+
+    private int rebalanceGroups(String selectGroups, String selectGroup, String updatePosition) {
+        List<Long> groups = jdbcTemplate.queryForList(
+                selectGroups, Long.class, config.getPositionMaxLength(), config.getBatchSize());
+        for (Long group : groups) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(selectGroup, Long.class, group);
+                List<String> keys = OrderKey.evenlySpaced(ids.size());
+                List<Object[]> rows = new ArrayList<>(ids.size());
+                for (int i = 0; i < ids.size(); i++) {
+                    rows.add(new Object[]{keys.get(i), ids.get(i)});
+                }
+                jdbcTemplate.batchUpdate(updatePosition, rows);
+            });
+        }
+        return groups.size();
+    }
+
+    /**
+     * Répète un lot jusqu'à ce qu'il soit incomplet (plus rien à purger)
+     * ou que le plafond de lots par run soit atteint.
+     */
+    private long inBatches(IntSupplier batch) {
+        long total = 0;
+        for (int i = 0; i < config.getMaxBatchesPerRun(); i++) {
+            int deleted = batch.getAsInt();
+            total += deleted;
+            if (deleted < config.getBatchSize()) {
+                return total;
+            }
+        }
+        log.warn("⚠️ Plafond de {} lots atteint, la purge reprendra au prochain run", config.getMaxBatchesPerRun());
+        return total;
+    }
+
+    private static Array bigintArray(Connection connection, Long[] ids) throws SQLException {
+        return connection.createArrayOf("bigint", ids);
+    }
+}
@@ -7,9 +7,12 @@ import com.backend.model.Progression;
 import com.backend.model.User;
 import com.backend.repository.DocumentRepository;
 import com.backend.repository.ProgressionRepository;
+import com.backend.repository.UserRepository;
+import com.backend.security.AuthenticatedUser;
 import com.backend.util.SecurityUtil;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,10 +24,12 @@ public class ProgressionService {
 
     private final ProgressionRepository progressionRepository;
     private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     // 🔎 Trouver un document par slug
     private Document findDocument(String slug) {
-        return documentRepository.findBySlug(slug)
+        return documentRepository.findVisibleBySlug(slug)
                 .orElseThrow(() -> new EntityNotFoundException("Document introuvable"));
     }
 
@@ -36,6 +41,12 @@ public class ProgressionService {
                 ));
     }
 
+    // 👤 Référence (proxy JPA) vers l'utilisateur connecté : aucun SELECT sur users
+    private User currentUserReferenceOrNull() {
+        AuthenticatedUser principal = SecurityUtil.getCurrentPrincipalOrNull();
+        return principal == null ? null : userRepository.getReferenceById(principal.getId());
+    }
+
     // 🔁 Vérifie si un document est déjà dans une liste
     private boolean isInList(List<Document> documents, Document document) {
         return documents.contains(document);
@@ -75,22 +86,27 @@ public class ProgressionService {
     }
 
     /**
-     * ➖ Supprime un document d’une des listes.
+     * ➖ Supprime un document d’une des listes, y compris un document masqué (catégorie supprimée) :
+     * les listes ne le chargent plus, le lien est donc supprimé directement dans la table de liaison.
      */
     @Transactional
     private ProgressionResponse removeFromList(User user, String slug, String type) {
-        var document = findDocument(slug);
+        String table = switch (type.toLowerCase()) {
+            case "progress" -> "progression_in_progress";
+            case "complete" -> "progression_complete";
+            case "favorite" -> "progression_favorites";
+            default -> throw new IllegalStateException("Type de progression inconnu : " + type);
+        };
+        // Collections non encore chargées : lues après la suppression, elles sont à jour
         var progression = getOrCreateProgression(user);
 
-        switch (type.toLowerCase()) {
-            case "progress" -> progression.getInProgress().remove(document);
-            case "complete" -> progression.getComplete().remove(document);
-            case "favorite" -> progression.getFavorites().remove(document);
-            default -> throw new IllegalStateException("Type de progression inconnu : " + type);
+        int removed = jdbcTemplate.update("DELETE FROM " + table
+                        + " WHERE progression_id = ? AND document_id IN (SELECT id FROM documents WHERE slug = ?)",
+                progression.getId(), slug);
+        if (removed == 0 && !documentRepository.existsBySlug(slug)) {
+            throw new EntityNotFoundException("Document introuvable");
         }
-
-        var saved = progressionRepository.save(progression);
-        return ProgressionMapper.toResponse(saved);
+        return ProgressionMapper.toResponse(progression);
     }
 
     /**
@@ -113,7 +129,7 @@ public class ProgressionService {
      */
     @Transactional
     public ProgressionResponse updateProgression(String progress, String complete, String favorites) {
-        User user = SecurityUtil.getCurrentUserOrNull();
+        User user = currentUserReferenceOrNull();
         if (user == null) {
             return null;
         }
@@ -134,7 +150,7 @@ public class ProgressionService {
      */
     @Transactional
     public ProgressionResponse deleteProgression(String progress, String complete, String favorites) {
-        User user = SecurityUtil.getCurrentUserOrNull();
+        User user = currentUserReferenceOrNull();
         if (user == null) {
             return null;
         }
@@ -155,7 +171,7 @@ public class ProgressionService {
      */
     @Transactional
     public ProgressionResponse getProgression() {
-        User user = SecurityUtil.getCurrentUserOrNull();
+        User user = currentUserReferenceOrNull();
         if (user == null) {
             return null;
         }
@@ -0,0 +1,190 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de connexions SMTP authentifiées : le coût TCP + STARTTLS + AUTH
+ * n'est payé qu'une fois pour de nombreux messages.
+ * Les connexions inactives trop longtemps, ou ayant servi maxMessagesPerConnection
+ * messages, sont fermées ; une connexion perdue est rouverte une fois avant d'abandonner.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final AppProperties.SmtpPool config;
+    private final Semaphore permits;
+    private final Deque<Lease> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final Counter connects;
+    private final Counter reconnects;
+
+    public SmtpTransportPool(JavaMailSender mailSender, AppProperties appProperties, MeterRegistry meterRegistry) {
+        // Le pool a besoin de la session et des paramètres de connexion de JavaMailSenderImpl
+        this.mailSender = mailSender instanceof JavaMailSenderImpl impl ? impl : null;
+        this.config = appProperties.getMail().getPool();
+        this.permits = new Semaphore(Math.max(1, config.getMaxConnections()));
+        this.connects = Counter.builder("mail.smtp.connects").register(meterRegistry);
+        this.reconnects = Counter.builder("mail.smtp.reconnects").register(meterRegistry);
+        Gauge.builder("mail.smtp.connections.open", open, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled() && mailSender != null;
+    }
+
+    /**
+     * Emprunte une connexion (réutilisée si possible) ; à rendre avec {@link #release(Lease)}.
+     */
+    public Lease borrow() {
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("Aucune connexion SMTP disponible");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Attente d'une connexion SMTP interrompue");
+        }
+        long now = System.nanoTime();
+        Lease lease;
+        while ((lease = idle.pollFirst()) != null) {
+            if (lease.isReusable(now)) {
+                return lease;
+            }
+            lease.close();
+        }
+        return new Lease();
+    }
+
+    public void release(Lease lease) {
+        try {
+            if (lease.broken || lease.transport == null) {
+                lease.close();
+            } else {
+                lease.lastUsed = System.nanoTime();
+                idle.offerFirst(lease);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 🧹 Ferme les connexions inactives avant que le serveur ne les coupe
+    @Scheduled(fixedDelay = 15_000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<Lease> iterator = idle.descendingIterator();
+        while (iterator.hasNext()) {
+            Lease lease = iterator.next();
+            // Seul l'âge est testé ici : la connexion peut être empruntée en parallèle
+            if (lease.isExpired(now) && idle.remove(lease)) {
+                lease.close();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        Lease lease;
+        while ((lease = idle.pollFirst()) != null) {
+            lease.close();
+        }
+    }
+
+    /**
+     * Connexion empruntée au pool.
+     */
+    public class Lease {
+        private Transport transport;
+        private int messages;
+        private long lastUsed = System.nanoTime();
+        private boolean broken;
+
+        /**
+         * Envoie un message sur la connexion, en la rouvrant une fois si elle a été perdue.
+         * @throws SendFailedException destinataire refusé (la connexion reste utilisable)
+         * @throws MessagingException  serveur injoignable même après reconnexion
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            message.saveChanges();
+            if (transport == null || messages >= config.getMaxMessagesPerConnection()) {
+                reconnect();
+            }
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (SendFailedException e) {
+                throw e;
+            } catch (MessagingException | IllegalStateException e) {
+                reconnects.increment();
+                log.debug("Connexion SMTP perdue, reconnexion", e);
+                reconnect();
+                try {
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (SendFailedException retryFailure) {
+                    throw retryFailure;
+                } catch (MessagingException retryFailure) {
+                    broken = true;
+                    throw retryFailure;
+                }
+            }
+            messages++;
+        }
+
+        private void reconnect() throws MessagingException {
+            close();
+            broken = true;
+            Transport fresh = mailSender.getSession().getTransport(mailSender.getProtocol());
+            fresh.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            connects.increment();
+            open.incrementAndGet();
+            transport = fresh;
+            messages = 0;
+            broken = false;
+        }
+
+        private boolean isExpired(long now) {
+            return now - lastUsed >= config.getIdleTimeout().toNanos();
+        }
+
+        private boolean isReusable(long now) {
+            return transport != null
+                    && !isExpired(now)
+                    && messages < config.getMaxMessagesPerConnection()
+                    && transport.isConnected();
+        }
+
+        private void close() {
+            if (transport == null) return;
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Fermeture de la connexion SMTP", e);
+            } finally {
+                transport = null;
+                open.decrementAndGet();
+            }
+        }
+    }
+}
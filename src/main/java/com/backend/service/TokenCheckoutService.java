@@ -7,6 +7,7 @@ import com.backend.exception.TokenInvalidException;
 import com.backend.model.TokenCheckout;
 import com.backend.model.User;
 import com.backend.repository.TokenCheckoutRepository;
+import com.backend.util.DigestUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,7 +22,7 @@ public class TokenCheckoutService {
     @Transactional
     public TokenCheckout createToken(User user, TokenType type, long expirationMinutes, String rawToken) {
         TokenCheckout token = TokenCheckout.builder()
-                .token(rawToken)
+                .tokenHash(DigestUtil.sha256(rawToken))
                 .type(type)
                 .user(user)
                 .expiresAt(LocalDateTime.now().plusMinutes(expirationMinutes))
@@ -32,7 +33,7 @@ public class TokenCheckoutService {
 
     @Transactional(readOnly = true)
     public TokenCheckout validateToken(String token, TokenType type) {
-        TokenCheckout tokenEntity = tokenCheckoutRepository.findByToken(token)
+        TokenCheckout tokenEntity = tokenCheckoutRepository.findByTokenHash(DigestUtil.sha256(token))
                 .orElseThrow(TokenInvalidException::new);
 
         if (tokenEntity.isUsed()) {
@@ -58,7 +59,7 @@ public class TokenCheckoutService {
 
     @Transactional(readOnly = true)
     public TokenCheckout getToken(User user, TokenType type){
-        var token = tokenCheckoutRepository.findByUserAndType(user, type);
+        var token = tokenCheckoutRepository.findFirstByUserAndTypeAndUsedFalseOrderByCreatedAtDesc(user, type);
         return token.orElse(null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import com.backend.enums.RevocationType;
+import com.backend.model.TokenRevocation;
+import com.backend.repository.TokenRevocationRepository;
+import com.backend.repository.projection.RevocationKeyView;
+import com.backend.util.BloomFilter;
+import com.backend.util.DigestUtil;
+import com.backend.util.ExpiringLruCache;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Liste de révocation des tokens d'auth (qui n'expirent pas).
+ * Chaque requête interroge d'abord un filtre de Bloom en mémoire ;
+ * seuls les positifs (vrais ou faux) sont vérifiés en base.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final long NOT_REVOKED = -1L;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final AppProperties.Revocation config;
+
+    private volatile BloomFilter bloomFilter;
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    // ⚡ Dernière révocation lue en base pour les vrais positifs du filtre (epoch ms) ;
+    // les faux positifs ne sont pas mis en cache : une révocation ultérieure serait masquée
+    private final ExpiringLruCache<String, Long> positives;
+
+    public TokenRevocationService(TokenRevocationRepository tokenRevocationRepository, AppProperties appProperties) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.config = appProperties.getSecurity().getRevocation();
+        this.bloomFilter = new BloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate());
+        this.positives = new ExpiringLruCache<>(10_000, config.getPositiveCacheTtl().toNanos());
+    }
+
+    private static String bloomKey(RevocationType type, String key) {
+        return type.name() + ":" + key;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 🚀 Reconstruit le filtre de Bloom à partir de la table au démarrage.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        long count = tokenRevocationRepository.count();
+        BloomFilter rebuilt = new BloomFilter(
+                Math.max(config.getExpectedInsertions(), count * 2),
+                config.getFalsePositiveRate()
+        );
+        try (Stream<RevocationKeyView> keys = tokenRevocationRepository.streamAllKeys()) {
+            keys.forEach(key -> rebuilt.put(bloomKey(key.getType(), key.getRevocationKey())));
+        }
+        this.bloomFilter = rebuilt;
+        this.lastSync = syncStart;
+        log.info("Filtre de révocation reconstruit : {} clés, {} octets", count, rebuilt.sizeInBytes());
+    }
+
+    /**
+     * 🔁 Intègre les révocations faites par les autres instances.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval:PT1M}")
+    public void refresh() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        // Petit recouvrement pour ne pas manquer une transaction commitée tardivement
+        for (RevocationKeyView key : tokenRevocationRepository.findByRevokedAtAfter(lastSync.minusSeconds(30))) {
+            String bloomKey = bloomKey(key.getType(), key.getRevocationKey());
+            bloomFilter.put(bloomKey);
+            // Révocation plus récente que celle en cache : relue en base à la prochaine vérification
+            positives.invalidate(bloomKey);
+        }
+        lastSync = syncStart;
+    }
+
+    /**
+     * ✅ Vérifie si un token d'auth (déjà validé) a été révoqué.
+     */
+    public boolean isRevoked(String token, Claims claims) {
+        String digest = DigestUtil.sha256Hex(token);
+        if (lookup(RevocationType.TOKEN, digest) != NOT_REVOKED) {
+            return true;
+        }
+
+        String uuid = claims.get("uuid", String.class);
+        if (uuid == null) {
+            return false;
+        }
+        long revokedAt = lookup(RevocationType.USER, uuid);
+        if (revokedAt == NOT_REVOKED) {
+            return false;
+        }
+        // iat est à la seconde : un token émis dans la même seconde que la révocation reste valide
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() < revokedAt;
+    }
+
+    private long lookup(RevocationType type, String key) {
+        String bloomKey = bloomKey(type, key);
+        if (!bloomFilter.mightContain(bloomKey)) {
+            return NOT_REVOKED;
+        }
+        Long cached = positives.get(bloomKey);
+        if (cached != null) {
+            return cached;
+        }
+        long revokedAt = tokenRevocationRepository.findLatestRevokedAt(type, key)
+                .map(dateTime -> toEpochMillis(dateTime.truncatedTo(ChronoUnit.SECONDS)))
+                .orElse(NOT_REVOKED);
+        if (revokedAt != NOT_REVOKED) {
+            positives.put(bloomKey, revokedAt);
+        }
+        return revokedAt;
+    }
+
+    /**
+     * 🚪 Révoque un token précis (logout).
+     */
+    @Transactional
+    public void revokeToken(String token) {
+        revoke(RevocationType.TOKEN, DigestUtil.sha256Hex(token));
+    }
+
+    /**
+     * 🚪 Révoque tous les tokens émis jusqu'ici pour cet utilisateur
+     * (logout partout, réinitialisation du mot de passe).
+     */
+    @Transactional
+    public void revokeAllForUser(UUID userUuid) {
+        revoke(RevocationType.USER, userUuid.toString());
+    }
+
+    private void revoke(RevocationType type, String key) {
+        TokenRevocation saved = tokenRevocationRepository.save(TokenRevocation.builder()
+                .type(type)
+                .revocationKey(key)
+                .build());
+
+        String bloomKey = bloomKey(type, key);
+        bloomFilter.put(bloomKey);
+        long revokedAt = toEpochMillis(saved.getRevokedAt().truncatedTo(ChronoUnit.SECONDS));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    positives.put(bloomKey, revokedAt);
+                }
+            });
+        } else {
+            positives.put(bloomKey, revokedAt);
+        }
+    }
+}
@@ -2,26 +2,33 @@ package com.backend.service;
 
 import com.backend.dto.user.UpdateUserRequest;
 import com.backend.dto.user.UserResponse;
-import com.backend.exception.UsernameAlreadyExistsException;
 import com.backend.mapper.UserMapper;
 import com.backend.model.User;
 import com.backend.repository.UserRepository;
+import com.backend.security.PrincipalCache;
 import com.backend.util.SecurityUtil;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final AvailabilityService availabilityService;
 
+    @Transactional
     public UserResponse updateUser(UpdateUserRequest request){
-        User currentUser = SecurityUtil.getCurrentUser();
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new UsernameAlreadyExistsException(request.getUsername());
-        }
+        // Entité gérée (et non l'instance partagée du cache des principaux)
+        User currentUser = userRepository.findById(SecurityUtil.getCurrentPrincipal().getId())
+                .orElseThrow(() -> new EntityNotFoundException("Utilisateur introuvable"));
         currentUser.setUsername(request.getUsername());
-        var saved = userRepository.save(currentUser);
+        // uk_users_username → UsernameAlreadyExistsException
+        var saved = userRepository.saveAndFlush(currentUser);
+        principalCache.evictAfterCommit(saved.getUuid());
+        availabilityService.recordAfterCommit(saved.getUsername(), null);
         return UserMapper.toResponse(saved);
     }
 }
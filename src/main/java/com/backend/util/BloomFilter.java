@@ -0,0 +1,66 @@
+package com.backend.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom thread-safe sur des chaînes.
+ * mightContain() == false garantit l'absence ; true peut être un faux positif.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, m);
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long[] hashes = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hashes, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) break;
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long[] hashes = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hashes, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ✅ Taille du tableau de bits en octets
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    // Double hachage (Kirsch–Mitzenmacher) à partir des 16 premiers octets du SHA-256
+    private static long[] hash(String value) {
+        ByteBuffer buffer = ByteBuffer.wrap(DigestUtil.sha256(value));
+        return new long[]{buffer.getLong(), buffer.getLong()};
+    }
+
+    private long index(long[] hashes, int i) {
+        long combined = hashes[0] + i * hashes[1];
+        return Math.floorMod(combined, bitCount);
+    }
+}
@@ -0,0 +1,59 @@
+package com.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvUtil {
+
+    /**
+     * Découpe un CSV (RFC 4180 : séparateur virgule, champs entre guillemets, "" pour un guillemet).
+     * Les lignes vides sont ignorées.
+     */
+    public static List<List<String>> parse(String content) {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean rowHasContent = false;
+
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < content.length() && content.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                rowHasContent = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+                rowHasContent = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < content.length() && content.charAt(i + 1) == '\n') i++;
+                if (rowHasContent || field.length() > 0) {
+                    row.add(field.toString());
+                    rows.add(row);
+                }
+                row = new ArrayList<>();
+                field.setLength(0);
+                rowHasContent = false;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("CSV invalide : guillemet non fermé");
+        }
+        if (rowHasContent || field.length() > 0) {
+            row.add(field.toString());
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,29 @@
+package com.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+public class DigestUtil {
+
+    // ✅ Empreinte SHA-256 (32 octets) d'une chaîne UTF-8
+    public static byte[] sha256(String input) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest(input.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    public static String sha256Hex(String input) {
+        return HexFormat.of().formatHex(sha256(input));
+    }
+
+    // ✅ Forme compacte, utilisable comme clé de cache
+    public static String sha256Base64(String input) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256(input));
+    }
+}
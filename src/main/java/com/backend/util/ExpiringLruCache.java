@@ -0,0 +1,129 @@
+package com.backend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache LRU borné avec expiration (TTL) par entrée.
+ * Les clés sont réparties sur plusieurs segments verrouillés indépendamment
+ * pour limiter la contention entre les threads de requêtes.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long defaultTtlNanos;
+    private final LongSupplier clock;
+
+    public ExpiringLruCache(int maxSize, long defaultTtlNanos) {
+        this(maxSize, defaultTtlNanos, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    ExpiringLruCache(int maxSize, long defaultTtlNanos, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille maximale du cache doit être positive");
+        }
+        int perSegment = Math.max(1, maxSize / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+        this.defaultTtlNanos = defaultTtlNanos;
+        this.clock = clock;
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    /**
+     * @return la valeur en cache, ou null si absente ou expirée.
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry == null) return null;
+            if (entry.expiresAt - clock.getAsLong() <= 0) {
+                segment.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, defaultTtlNanos);
+    }
+
+    public void put(K key, V value, long ttlNanos) {
+        if (ttlNanos <= 0) return;
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos));
+        }
+    }
+
+    /**
+     * Valeur présente (dont l'expiration est repoussée : TTL glissant) ou créée atomiquement.
+     * Segment plein : l'entrée la moins récemment utilisée est évincée, en temps constant.
+     */
+    public V getOrCreate(K key, Function<? super K, ? extends V> factory) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = clock.getAsLong();
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            V value = entry != null && entry.expiresAt - now > 0 ? entry.value : factory.apply(key);
+            segment.put(key, new Entry<>(value, now + defaultTtlNanos));
+            return value;
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true); // ✅ ordre d'accès → LRU
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
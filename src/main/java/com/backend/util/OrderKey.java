@@ -0,0 +1,204 @@
+package com.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clés d'ordre fractionnaires (comparées octet par octet : colonne en collation "C").
+ * Une clé = une partie entière à longueur variable + une partie fractionnaire (base 36) :
+ * <ul>
+ *     <li>la tête (premier caractère) donne le nombre de chiffres entiers qui suivent :
+ *     'a' → 1, 'b' → 2 … 'z' → 26 pour les entiers positifs ; 'Z' → 1 … 'A' → 26 pour les négatifs
+ *     (majuscules &lt; minuscules en collation "C") ;</li>
+ *     <li>la fraction, optionnelle, ne se termine jamais par '0', pour qu'il reste de la place avant elle.</li>
+ * </ul>
+ * Ajouter en fin (ou en tête) de liste incrémente (décrémente) la partie entière : la clé grandit
+ * comme le logarithme du nombre d'ajouts. Insérer entre deux clés ne touche que la fraction ;
+ * déplacer un élément ne réécrit donc que sa propre ligne.
+ * Les clés antérieures à ce format (fraction seule) restent comparables et sont réécrites
+ * par MaintenanceService.rebalancePositions.
+ */
+public class OrderKey {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    private static final String ZERO = "a0";
+
+    /**
+     * @param before clé précédente, ou null (début de liste)
+     * @param after  clé suivante, ou null (fin de liste)
+     * @return une clé strictement comprise entre les deux
+     */
+    public static String between(String before, String after) {
+        String a = before == null || before.isEmpty() ? null : before;
+        if (a != null && after != null && a.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Clés d'ordre inversées : " + before + " >= " + after);
+        }
+        if ((a != null && !isValid(a)) || (after != null && !isValid(after))) {
+            return legacyBetween(a == null ? "" : a, after);
+        }
+        if (a == null && after == null) {
+            return ZERO;
+        }
+        if (a == null) {
+            String integer = integerPart(after);
+            String fraction = after.substring(integer.length());
+            if (!fraction.isEmpty()) {
+                return integer;
+            }
+            String decremented = decrementInteger(integer);
+            if (decremented == null) {
+                throw new IllegalArgumentException("Plus de clé disponible avant " + after);
+            }
+            return decremented;
+        }
+        String integerA = integerPart(a);
+        String fractionA = a.substring(integerA.length());
+        if (after == null) {
+            String incremented = incrementInteger(integerA);
+            return incremented != null ? incremented : integerA + increment(fractionA);
+        }
+        String integerB = integerPart(after);
+        if (integerA.equals(integerB)) {
+            return integerA + midpoint(fractionA, after.substring(integerB.length()));
+        }
+        String incremented = incrementInteger(integerA);
+        if (incremented != null && incremented.compareTo(after) < 0) {
+            return incremented;
+        }
+        return integerA + increment(fractionA);
+    }
+
+    /**
+     * {@code count} clés entières courtes et régulièrement espacées (rééquilibrage, import).
+     */
+    public static List<String> evenlySpaced(int count) {
+        int width = 1;
+        long space = BASE;
+        // Au moins deux pas libres entre deux clés consécutives
+        while (space / (count + 1L) < 2) {
+            width++;
+            space *= BASE;
+        }
+        long step = space / (count + 1L);
+        char head = (char) ('a' + width - 1);
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(head + toDigits(i * step, width));
+        }
+        return keys;
+    }
+
+    /**
+     * Clé au format tête entière + fraction (les clés antérieures ne le sont pas forcément).
+     */
+    public static boolean isValid(String key) {
+        if (key == null || key.isEmpty()) return false;
+        int length = integerLength(key.charAt(0));
+        if (length < 0 || key.length() <= length) return false;
+        for (int i = 1; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) return false;
+        }
+        return key.length() == length + 1 || key.charAt(key.length() - 1) != '0';
+    }
+
+    // Nombre de chiffres entiers annoncés par la tête, -1 si ce n'est pas une tête
+    private static int integerLength(char head) {
+        if (head >= 'a' && head <= 'z') return head - 'a' + 1;
+        if (head >= 'A' && head <= 'Z') return 'Z' - head + 1;
+        return -1;
+    }
+
+    private static String integerPart(String key) {
+        return key.substring(0, integerLength(key.charAt(0)) + 1);
+    }
+
+    // Entier suivant ; au-delà du plus grand entier à n chiffres, le plus petit à n + 1 chiffres
+    private static String incrementInteger(String integer) {
+        char head = integer.charAt(0);
+        char[] digits = integer.substring(1).toCharArray();
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits[i]);
+            if (digit < BASE - 1) {
+                digits[i] = DIGITS.charAt(digit + 1);
+                return head + new String(digits);
+            }
+            digits[i] = '0';
+        }
+        if (head == 'Z') return ZERO;
+        if (head == 'z') return null;
+        char next = (char) (head + 1);
+        return next + "0".repeat(integerLength(next));
+    }
+
+    // Entier précédent ; en deçà du plus petit entier à n chiffres, le plus grand à n + 1 chiffres (négatifs)
+    private static String decrementInteger(String integer) {
+        char head = integer.charAt(0);
+        char[] digits = integer.substring(1).toCharArray();
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits[i]);
+            if (digit > 0) {
+                digits[i] = DIGITS.charAt(digit - 1);
+                return head + new String(digits);
+            }
+            digits[i] = DIGITS.charAt(BASE - 1);
+        }
+        if (head == 'a') return "Z" + DIGITS.charAt(BASE - 1);
+        if (head == 'A') return null;
+        char previous = (char) (head - 1);
+        return previous + String.valueOf(DIGITS.charAt(BASE - 1)).repeat(integerLength(previous));
+    }
+
+    // Ancien calcul, sur la fraction seule : clés antérieures au format à tête entière
+    private static String legacyBetween(String a, String after) {
+        return after == null ? increment(a) : midpoint(a, after);
+    }
+
+    // Fraction strictement supérieure à a, sans borne haute
+    private static String increment(String a) {
+        if (a.isEmpty()) {
+            return String.valueOf(DIGITS.charAt(BASE / 2));
+        }
+        for (int i = 0; i < a.length(); i++) {
+            int digit = DIGITS.indexOf(a.charAt(i));
+            if (digit < BASE - 1) {
+                return a.substring(0, i) + DIGITS.charAt(digit + 1);
+            }
+        }
+        // Que des 'z' : on repart du plus petit chiffre pour laisser de la place au caractère suivant
+        return a + DIGITS.charAt(1);
+    }
+
+    // Fraction entre a et b (a < b) ; un caractère absent de a vaut '0'
+    private static String midpoint(String a, String b) {
+        int n = 0;
+        while (n < b.length() && digitAt(a, n) == DIGITS.indexOf(b.charAt(n))) {
+            n++;
+        }
+        if (n > 0) {
+            return b.substring(0, n) + midpoint(n < a.length() ? a.substring(n) : "", b.substring(n));
+        }
+        int low = digitAt(a, 0);
+        int high = DIGITS.indexOf(b.charAt(0));
+        if (high - low > 1) {
+            return String.valueOf(DIGITS.charAt((low + high + 1) / 2));
+        }
+        if (b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(low) + increment(a.isEmpty() ? "" : a.substring(1));
+    }
+
+    private static int digitAt(String key, int index) {
+        return index < key.length() ? DIGITS.indexOf(key.charAt(index)) : 0;
+    }
+
+    private static String toDigits(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,62 @@
+package com.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contenu déjà rendu, découpé autour de marqueurs à remplacer par destinataire :
+ * le rendu coûteux (Thymeleaf) est fait une fois, la personnalisation n'est
+ * qu'une concaténation.
+ */
+public final class PlaceholderTemplate {
+
+    // Alternance : fragments[i], puis la valeur n° slots[i], puis fragments[i + 1]...
+    private final String[] fragments;
+    private final int[] slots;
+    private final int fixedLength;
+
+    private PlaceholderTemplate(String[] fragments, int[] slots) {
+        this.fragments = fragments;
+        this.slots = slots;
+        int length = 0;
+        for (String fragment : fragments) length += fragment.length();
+        this.fixedLength = length;
+    }
+
+    public static PlaceholderTemplate compile(String content, String... placeholders) {
+        List<String> fragments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int next = -1;
+            int slot = -1;
+            for (int i = 0; i < placeholders.length; i++) {
+                int index = content.indexOf(placeholders[i], position);
+                if (index >= 0 && (next < 0 || index < next)) {
+                    next = index;
+                    slot = i;
+                }
+            }
+            if (next < 0) break;
+            fragments.add(content.substring(position, next));
+            slots.add(slot);
+            position = next + placeholders[slot].length();
+        }
+        fragments.add(content.substring(position));
+        return new PlaceholderTemplate(
+                fragments.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    /**
+     * @param values une valeur par marqueur, dans l'ordre passé à {@link #compile}
+     */
+    public String fill(String... values) {
+        StringBuilder builder = new StringBuilder(fixedLength + 32 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(fragments[i]).append(values[slots[i]]);
+        }
+        return builder.append(fragments[fragments.length - 1]).toString();
+    }
+}
@@ -1,5 +1,7 @@
 package com.backend.util;
 
+import com.backend.enums.PaginationMode;
+import com.backend.exception.BadRequestException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -19,4 +21,25 @@ public class RequestUtil {
 
         return PageRequest.of(safePage, safeSize, sort);
     }
+
+    // Taille de page bornée, pour les modes sans Pageable (curseur)
+    public static int getPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // 🔢 Ordre pédagogique (clé fractionnaire), l'id départage les clés pas encore attribuées
+    public static Pageable getPositionPageable(int page, int size) {
+        int safeSize = Math.min(size, MAX_PAGE_SIZE);
+        int safePage = Math.max(page, 0);
+
+        return PageRequest.of(safePage, safeSize, Sort.by("position").ascending().and(Sort.by("id")));
+    }
+
+    // ?total= : exact (défaut, COUNT), none (slice, sans total) ou approximate (compteurs maintenus)
+    public static PaginationMode getTotalMode(String total) {
+        if (total == null || total.equalsIgnoreCase("exact")) return PaginationMode.EXACT;
+        if (total.equalsIgnoreCase("none")) return PaginationMode.SLICE;
+        if (total.equalsIgnoreCase("approximate")) return PaginationMode.APPROXIMATE;
+        throw new BadRequestException("Valeur de total inconnue : " + total + " (exact, none, approximate)");
+    }
 }
@@ -4,28 +4,46 @@ package com.backend.util;
 import com.backend.enums.UserRole;
 import com.backend.exception.NoAuthenticatedUserException;
 import com.backend.model.User;
+import com.backend.security.AuthenticatedUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 public class SecurityUtil {
 
-    /**
-     * Récupère l'utilisateur actuellement authentifié.
-     * @return l'entité User de l'utilisateur connecté.
-     * @throws NoAuthenticatedUserException si aucun utilisateur n'est connecté.
-     */
-    public static User getCurrentUser() {
+    private static AuthenticatedUser findCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication != null
                 && authentication.isAuthenticated()
                 && !"anonymousUser".equals(authentication.getPrincipal())
-                && authentication.getPrincipal() instanceof User user) {
-            return user;
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal;
+        }
+        return null;
+    }
+
+    /**
+     * Récupère le principal authentifié (id, uuid, email, rôle du compte),
+     * sans aucun accès à la base de données.
+     * @throws NoAuthenticatedUserException si aucun utilisateur n'est connecté.
+     */
+    public static AuthenticatedUser getCurrentPrincipal() {
+        AuthenticatedUser principal = findCurrentPrincipal();
+        if (principal == null) {
+            throw new NoAuthenticatedUserException();
         }
+        return principal;
+    }
 
-        throw new NoAuthenticatedUserException();
+    /**
+     * Récupère l'utilisateur actuellement authentifié.
+     * Entité résolue par le filtre JWT (détachée) : aucun accès à la base.
+     * @return l'entité User de l'utilisateur connecté.
+     * @throws NoAuthenticatedUserException si aucun utilisateur n'est connecté.
+     */
+    public static User getCurrentUser() {
+        return getCurrentPrincipal().getUser();
     }
 
     /**
@@ -51,26 +69,25 @@ public class SecurityUtil {
     }
 
     /**
-     * Variante souple — renvoie null si aucun utilisateur connecté ou si c'est un admin.
-     * Utile pour les contextes facultatifs (progression, logs, etc.)
+     * Variante souple du principal — renvoie null si aucun utilisateur connecté ou si c'est un admin.
      */
-    public static User getCurrentUserOrNull() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication != null
-                && authentication.isAuthenticated()
-                && !"anonymousUser".equals(authentication.getPrincipal())
-                && authentication.getPrincipal() instanceof User user) {
-
-            // ✅ Ignorer les administrateurs
-            if (user.getRole() == UserRole.ADMIN) {
-                return null;
-            }
+    public static AuthenticatedUser getCurrentPrincipalOrNull() {
+        AuthenticatedUser principal = findCurrentPrincipal();
 
-            return user;
+        // ✅ Ignorer les administrateurs
+        if (principal == null || principal.getRole() == UserRole.ADMIN) {
+            return null;
         }
+        return principal;
+    }
 
-        return null;
+    /**
+     * Variante souple — renvoie null si aucun utilisateur connecté ou si c'est un admin.
+     * Utile pour les contextes facultatifs (progression, logs, etc.)
+     */
+    public static User getCurrentUserOrNull() {
+        AuthenticatedUser principal = getCurrentPrincipalOrNull();
+        return principal == null ? null : principal.getUser();
     }
 
 }
@@ -0,0 +1,95 @@
+package com.backend.service;
+
+import com.backend.dto.category.CategoryResponse;
+import com.backend.repository.projection.CategoryNodeView;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Construction et lecture d'une photographie de 100 000 catégories :
+ * un arbre large (10 enfants par nœud) et une chaîne de 100 000 niveaux,
+ * qui ferait déborder la pile avec un assemblage récursif.
+ */
+@Tag("benchmark")
+class CategorySnapshotBenchmark {
+
+    private static final int NODES = 100_000;
+    private static final int LOOKUPS = 1_000_000;
+
+    private record Row(Long id, Long parentId, String name, String slug, String description,
+                       int documentCount, int subtreeDocumentCount) implements CategoryNodeView {
+        public Long getId() { return id; }
+        public Long getParentId() { return parentId; }
+        public String getName() { return name; }
+        public String getSlug() { return slug; }
+        public String getDescription() { return description; }
+        public int getDocumentCount() { return documentCount; }
+        public int getSubtreeDocumentCount() { return subtreeDocumentCount; }
+    }
+
+    @Test
+    void wideTreeOfOneHundredThousandNodes() {
+        List<CategoryNodeView> rows = new ArrayList<>(NODES);
+        for (long id = 1; id <= NODES; id++) {
+            Long parentId = id == 1 ? null : (id - 2) / 10 + 1;
+            rows.add(new Row(id, parentId, "catégorie " + id, "categorie-" + id, "Description " + id,
+                    1, id == 1 ? NODES : 1));
+        }
+
+        CategorySnapshot snapshot = CategorySnapshot.build(rows);
+        assertEquals(NODES, snapshot.size());
+        assertEquals(NODES, snapshot.totalCountAt(snapshot.indexOf("categorie-1")));
+
+        long start = System.nanoTime();
+        long found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += snapshot.indexOf("categorie-" + (i % NODES + 1)) >= 0 ? 1 : 0;
+        }
+        double lookupNanos = (System.nanoTime() - start) / (double) LOOKUPS;
+        assertEquals(LOOKUPS, found);
+
+        start = System.nanoTime();
+        CategoryResponse root = snapshot.rootResponses(Integer.MAX_VALUE).get(0);
+        double treeMillis = (System.nanoTime() - start) / 1e6;
+        assertEquals(10, root.getChildren().size());
+
+        start = System.nanoTime();
+        CategoryResponse twoLevels = snapshot.rootResponses(2).get(0);
+        double twoLevelsMicros = (System.nanoTime() - start) / 1e3;
+        CategoryResponse grandChild = twoLevels.getChildren().get(0).getChildren().get(0);
+        assertTrue(grandChild.getChildren().isEmpty() && grandChild.isHasChildren());
+
+        System.out.printf("Catalogue large — %d nœuds : construction %.1f ms, ~%d Ko, recherche %.0f ns, "
+                        + "arbre complet %.1f ms, deux niveaux %.0f µs%n",
+                NODES, snapshot.getBuildNanos() / 1e6, snapshot.estimatedBytes() / 1024, lookupNanos,
+                treeMillis, twoLevelsMicros);
+    }
+
+    @Test
+    void deepChainOfOneHundredThousandLevels() {
+        List<CategoryNodeView> rows = new ArrayList<>(NODES);
+        for (long id = 1; id <= NODES; id++) {
+            rows.add(new Row(id, id == 1 ? null : id - 1, "niveau " + id, "niveau-" + id, "",
+                    id == NODES ? 3 : 0, 3));
+        }
+
+        CategorySnapshot snapshot = CategorySnapshot.build(rows);
+        assertEquals(3, snapshot.totalCountAt(snapshot.indexOf("niveau-1")));
+
+        CategoryResponse leafParent = snapshot.toResponse(snapshot.indexOf("niveau-" + (NODES - 1)), true, Integer.MAX_VALUE);
+        assertEquals("niveau-" + (NODES - 2), leafParent.getParent().getSlug());
+        assertEquals(3, leafParent.getChildren().get(0).getCount());
+
+        CategoryResponse top = snapshot.rootResponses(Integer.MAX_VALUE).get(0);
+        assertTrue(top.getChildren().size() == 1);
+
+        System.out.printf("Catalogue profond — %d niveaux : construction %.1f ms, ~%d Ko%n",
+                NODES, snapshot.getBuildNanos() / 1e6, snapshot.estimatedBytes() / 1024);
+    }
+}
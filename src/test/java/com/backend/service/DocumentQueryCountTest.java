@@ -0,0 +1,237 @@
+package com.backend.service;
+
+import com.backend.model.Category;
+import com.backend.model.Document;
+import com.backend.repository.CategoryRepository;
+import com.backend.repository.DocumentRepository;
+import com.backend.support.StatementCounter;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre d'instructions SQL par endpoint de lecture de documents, compté au niveau du DataSource
+ * (JDBC du modèle de lecture comme Hibernate), quel que soit le nombre de catégories touchées :
+ * un N+1 réintroduit (catégorie chargée document par document) fait échouer le build.
+ * Données validées (pas de rollback) : la photographie du catalogue, lue dans sa propre transaction,
+ * doit voir les catégories créées ; elles sont supprimées après chaque test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCounter.class)
+@WithMockUser(roles = "ADMIN")
+class DocumentQueryCountTest {
+
+    private static final int CATEGORIES = 5;
+    private static final int DOCUMENTS_PER_CATEGORY = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentListingService documentListingService;
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String rootSlug;
+    private String rootPath;
+    private String documentSlug;
+
+    @BeforeEach
+    void seed() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        transactionTemplate.executeWithoutResult(status -> {
+            Category root = category("racine " + run, null);
+            rootSlug = root.getSlug();
+            rootPath = root.getPath();
+            for (int c = 0; c < CATEGORIES; c++) {
+                Category child = category("sous-catégorie " + run + " " + c, root);
+                for (int d = 0; d < DOCUMENTS_PER_CATEGORY; d++) {
+                    String name = "document " + run + " " + c + " " + d;
+                    Document document = documentRepository.saveAndFlush(Document.builder()
+                            .name(name)
+                            .slug(name.replace(' ', '-'))
+                            .description("Description")
+                            .urlPdf("https://example.test/" + name.replace(' ', '-') + ".pdf")
+                            .category(child)
+                            .build());
+                    documentListingService.save(document);
+                    documentSlug = document.getSlug();
+                }
+            }
+        });
+        // Reconstruction synchrone : les catégories du test sont dans la photographie
+        categoryCatalog.rebuild();
+        StatementCounter.start();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM document_listing WHERE category_path LIKE ?", rootPath + "%");
+        jdbcTemplate.update("DELETE FROM documents WHERE category_id IN (SELECT id FROM categories WHERE path LIKE ?)",
+                rootPath + "%");
+        jdbcTemplate.update("DELETE FROM categories WHERE path LIKE ?", rootPath + "%");
+        categoryCatalog.rebuild();
+    }
+
+    private Category category(String name, Category parent) {
+        Category category = categoryRepository.saveAndFlush(Category.builder()
+                .name(name)
+                .slug(name.replace(' ', '-'))
+                .description("Description")
+                .parent(parent)
+                .build());
+        category.setPath((parent != null ? parent.getPath() : "/") + category.getId() + "/");
+        return category;
+    }
+
+    private static void assertStatements(int expected) {
+        List<String> statements = StatementCounter.statements();
+        assertEquals(expected, statements.size(), statements::toString);
+    }
+
+    @Test
+    void categoryTreePage() throws Exception {
+        mockMvc.perform(get("/api/document/category")
+                        .param("slug", rootSlug)
+                        .param("includeDescendants", "true")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content", hasSize(CATEGORIES * DOCUMENTS_PER_CATEGORY)));
+
+        // Page pleine : le total ne se déduit pas, la page puis le COUNT
+        assertStatements(2);
+        assertTrue(StatementCounter.statements().get(1).contains("count("));
+    }
+
+    @Test
+    void categoryTreeSliceHasNoTotal() throws Exception {
+        mockMvc.perform(get("/api/document/category")
+                        .param("slug", rootSlug)
+                        .param("includeDescendants", "true")
+                        .param("total", "none")
+                        .param("size", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content", hasSize(8)))
+                .andExpect(jsonPath("$.data.meta.last").value(false))
+                .andExpect(jsonPath("$.data.meta.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.data.meta.mode").value("SLICE"));
+
+        // La ligne en plus suffit à dire s'il reste une page : aucun COUNT
+        assertStatements(1);
+        assertTrue(StatementCounter.statements().stream().noneMatch(sql -> sql.contains("count(")));
+    }
+
+    // Parcourt toutes les pages du curseur : ids ajoutés à read dans l'ordre de lecture, nombre de pages renvoyé
+    private int readAllPages(String sort, List<Integer> read) throws Exception {
+        String cursor = "";
+        int pages = 0;
+        do {
+            String body = mockMvc.perform(get("/api/document/category")
+                            .param("slug", rootSlug)
+                            .param("includeDescendants", "true")
+                            .param("sort", sort)
+                            .param("after", cursor)
+                            .param("size", "6"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            pages++;
+            read.addAll(JsonPath.<List<Integer>>read(body, "$.data.content[*].id"));
+            // Champs nuls omis à la sérialisation : pas de nextCursor sur la dernière page
+            Map<String, Object> data = JsonPath.read(body, "$.data");
+            cursor = (String) data.get("nextCursor");
+        } while (cursor != null);
+        return pages;
+    }
+
+    @Test
+    void categoryTreeByCursor() throws Exception {
+        List<Integer> read = new ArrayList<>();
+        int pages = readAllPages("recent", read);
+
+        assertEquals(CATEGORIES * DOCUMENTS_PER_CATEGORY, read.size());
+        assertEquals(read.size(), new HashSet<>(read).size());
+        // Une requête par page, sans COUNT
+        assertStatements(pages);
+    }
+
+    @Test
+    void positionCursorReachesUnorderedDocuments() throws Exception {
+        // 10 documents ordonnés, 10 encore sans position : la frontière tombe au milieu de la 2e page
+        jdbcTemplate.update("""
+                UPDATE document_listing SET position = 'a' || (document_id % 7)
+                WHERE document_id IN (SELECT document_id FROM document_listing
+                                      WHERE category_path LIKE ? ORDER BY document_id LIMIT 10)
+                """, rootPath + "%");
+
+        List<Integer> read = new ArrayList<>();
+        readAllPages("position", read);
+
+        assertEquals(CATEGORIES * DOCUMENTS_PER_CATEGORY, read.size());
+        assertEquals(read.size(), new HashSet<>(read).size());
+        // Positions nulles en fin de liste, par id
+        List<Integer> unordered = read.subList(10, read.size());
+        assertEquals(unordered.stream().sorted().toList(), unordered);
+    }
+
+    @Test
+    void latestDocuments() throws Exception {
+        mockMvc.perform(get("/api/document/latest").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(10)));
+
+        assertStatements(1);
+    }
+
+    @Test
+    void allDocumentsForAdmin() throws Exception {
+        mockMvc.perform(get("/api/document/admin/all"))
+                .andExpect(status().isOk());
+
+        assertStatements(1);
+    }
+
+    @Test
+    void documentBySlug() throws Exception {
+        mockMvc.perform(get("/api/document/{slug}", documentSlug))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.slug").value(documentSlug));
+
+        assertStatements(1);
+    }
+}
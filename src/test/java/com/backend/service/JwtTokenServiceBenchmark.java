@@ -0,0 +1,67 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import com.backend.dto.user.UserResponse;
+import com.backend.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Coût par requête de la vérification d'un token d'auth :
+ * clé + parser reconstruits à chaque appel (ancien comportement)
+ * contre clé/parser partagés et cache des claims vérifiés.
+ */
+@Tag("benchmark")
+class JwtTokenServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void perRequestVerificationCost() {
+        JwtTokenService service = new JwtTokenService(new AppProperties());
+        ReflectionTestUtils.setField(service, "jwtSecret", SECRET);
+        service.init();
+
+        String token = service.generateAuthToken(UserResponse.builder()
+                .id(1L)
+                .uuid(UUID.randomUUID())
+                .email("bench@learnarabic.test")
+                .role(UserRole.CLIENT)
+                .build());
+
+        double before = measure(() -> Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody());
+        double after = measure(() -> service.extractAllClaims(token));
+
+        System.out.printf("JWT verify — avant : %.0f ns/requête, après : %.0f ns/requête (x%.1f)%n",
+                before, after, before / after);
+        assertEquals("bench@learnarabic.test", service.extractEmail(token));
+    }
+
+    private static double measure(java.util.function.Supplier<Claims> call) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += call.get().size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += call.get().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.println(); // empêche l'élimination du code mort
+        return (double) elapsed / ITERATIONS;
+    }
+}
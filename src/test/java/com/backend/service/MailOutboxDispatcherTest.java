@@ -0,0 +1,127 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import com.backend.enums.MailOutboxStatus;
+import com.backend.model.MailOutbox;
+import com.backend.repository.MailOutboxRepository;
+import com.backend.support.FakeSmtpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Dispatcher de l'outbox contre un serveur SMTP local.
+ */
+class MailOutboxDispatcherTest {
+
+    private final MailOutboxRepository repository = mock(MailOutboxRepository.class);
+    private final AppProperties appProperties = new AppProperties();
+
+    private MailOutboxDispatcher dispatcher(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SmtpTransportPool transportPool = new SmtpTransportPool(mailSender, appProperties, meterRegistry);
+        MailService mailService = new MailService(
+                mailSender, null, repository, mock(ApplicationEventPublisher.class), transportPool);
+        ReflectionTestUtils.setField(mailService, "from", "noreply@learnarabic.test");
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new MailOutboxDispatcher(repository, mailService, transactionTemplate, appProperties, meterRegistry);
+    }
+
+    private static MailOutbox pending(long id, int attempts) {
+        return MailOutbox.builder()
+                .id(id)
+                .recipient("learner" + id + "@learnarabic.test")
+                .subject("Confirmez votre compte")
+                .bodyHtml("<p>Bonjour</p>")
+                .bodyText("Bonjour")
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void sendsClaimedMailsAndMarksThemSent() throws Exception {
+        try (FakeSmtpServer smtp = new FakeSmtpServer(0)) {
+            when(repository.claimDue(eq(MailOutboxStatus.PENDING), any(), any()))
+                    .thenReturn(List.of(pending(1, 0), pending(2, 0)))
+                    .thenReturn(List.of());
+
+            MailOutboxDispatcher dispatcher = dispatcher(smtp.getPort());
+            dispatcher.dispatch();
+            dispatcher.shutdown();
+
+            verify(repository).markSent(eq(1L), any());
+            verify(repository).markSent(eq(2L), any());
+            assertTrue(smtp.getRecipients().containsAll(
+                    List.of("learner1@learnarabic.test", "learner2@learnarabic.test")));
+        }
+    }
+
+    @Test
+    void reschedulesWithBackoffWhenSmtpIsDown() throws Exception {
+        int closedPort;
+        try (FakeSmtpServer smtp = new FakeSmtpServer(0)) {
+            closedPort = smtp.getPort();
+        }
+        when(repository.claimDue(eq(MailOutboxStatus.PENDING), any(), any()))
+                .thenReturn(List.of(pending(1, 1)))
+                .thenReturn(List.of());
+
+        MailOutboxDispatcher dispatcher = dispatcher(closedPort);
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        verify(repository).reschedule(eq(1L), argThat(next -> next.isAfter(LocalDateTime.now())), anyString());
+        verify(repository, never()).markSent(anyLong(), any());
+    }
+
+    @Test
+    void abandonsAfterMaxAttempts() throws Exception {
+        int closedPort;
+        try (FakeSmtpServer smtp = new FakeSmtpServer(0)) {
+            closedPort = smtp.getPort();
+        }
+        int maxAttempts = appProperties.getMail().getOutbox().getMaxAttempts();
+        when(repository.claimDue(eq(MailOutboxStatus.PENDING), any(), any()))
+                .thenReturn(List.of(pending(1, maxAttempts - 1)))
+                .thenReturn(List.of());
+
+        MailOutboxDispatcher dispatcher = dispatcher(closedPort);
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        verify(repository).markFailed(eq(1L), anyString());
+    }
+
+    @Test
+    void backoffGrowsExponentiallyUpToTheCap() {
+        MailOutboxDispatcher dispatcher = dispatcher(25);
+        AppProperties.Outbox config = appProperties.getMail().getOutbox();
+
+        Duration first = dispatcher.backoff(1);
+        Duration third = dispatcher.backoff(3);
+        Duration huge = dispatcher.backoff(50);
+        dispatcher.shutdown();
+
+        assertTrue(first.compareTo(config.getInitialBackoff().multipliedBy(12).dividedBy(10)) <= 0);
+        assertTrue(third.compareTo(config.getInitialBackoff().multipliedBy(3)) >= 0);
+        assertTrue(huge.compareTo(config.getMaxBackoff().multipliedBy(12).dividedBy(10)) <= 0);
+    }
+}
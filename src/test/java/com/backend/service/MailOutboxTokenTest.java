@@ -0,0 +1,77 @@
+package com.backend.service;
+
+import com.backend.model.MailOutbox;
+import com.backend.repository.MailOutboxRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Un mail traité (envoyé ou abandonné) ne garde pas son corps : le token en clair
+ * des liens de vérification / réinitialisation ne reste pas 7 jours dans mail_outbox.
+ */
+@SpringBootTest
+@Transactional
+class MailOutboxTokenTest {
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long enqueue(String token) {
+        String link = "https://learnarabic.test/reset-password?token=" + token;
+        MailOutbox mail = mailOutboxRepository.saveAndFlush(MailOutbox.builder()
+                .recipient("learner@learnarabic.test")
+                .subject("Réinitialisation du mot de passe")
+                .bodyHtml("<a href=\"" + link + "\">Réinitialiser</a>")
+                .bodyText("Cliquez sur ce lien : " + link)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        assertEquals(1, rowsContaining(token));
+        return mail.getId();
+    }
+
+    // Recherche directe en base, quel que soit l'état du contexte de persistance
+    private int rowsContaining(String token) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM mail_outbox WHERE concat(subject, body_html, body_text, last_error) LIKE ?",
+                Integer.class, "%" + token + "%");
+    }
+
+    @Test
+    void sentMailKeepsNoToken() {
+        String token = UUID.randomUUID().toString();
+        Long id = enqueue(token);
+
+        mailOutboxRepository.markSent(id, LocalDateTime.now());
+        entityManager.clear();
+
+        assertEquals(0, rowsContaining(token));
+        assertTrue(mailOutboxRepository.findById(id).map(mail -> mail.getSentAt() != null).orElse(false));
+    }
+
+    @Test
+    void abandonedMailKeepsNoToken() {
+        String token = UUID.randomUUID().toString();
+        Long id = enqueue(token);
+
+        mailOutboxRepository.markFailed(id, "Serveur SMTP injoignable");
+        entityManager.clear();
+
+        assertEquals(0, rowsContaining(token));
+    }
+}
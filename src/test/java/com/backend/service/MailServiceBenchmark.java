@@ -0,0 +1,75 @@
+package com.backend.service;
+
+import com.backend.config.AppProperties;
+import com.backend.repository.MailOutboxRepository;
+import com.backend.support.FakeSmtpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Débit d'envoi contre un serveur SMTP local dont l'accueil simule
+ * le coût d'une session (TCP + STARTTLS + AUTH) :
+ * une connexion par message contre connexions du pool et envoi par lots.
+ */
+@Tag("benchmark")
+class MailServiceBenchmark {
+
+    private static final long HANDSHAKE_MILLIS = 20;
+    private static final int MESSAGES = 300;
+    private static final int BATCH = 50;
+
+    @Test
+    void messagesPerSecondWithAndWithoutPooling() throws Exception {
+        try (FakeSmtpServer smtp = new FakeSmtpServer(HANDSHAKE_MILLIS)) {
+            double unpooled = throughput(smtp, false);
+            int connectionsBefore = smtp.getConnections();
+            double pooled = throughput(smtp, true);
+            int pooledConnections = smtp.getConnections() - connectionsBefore;
+
+            System.out.printf("SMTP — sans pool : %.0f msg/s, avec pool : %.0f msg/s (x%.1f, %d connexion(s))%n",
+                    unpooled, pooled, pooled / unpooled, pooledConnections);
+            assertEquals(2 * MESSAGES, smtp.getRecipients().size());
+            assertTrue(pooledConnections < connectionsBefore);
+        }
+    }
+
+    private static double throughput(FakeSmtpServer smtp, boolean pooling) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getPort());
+
+        AppProperties appProperties = new AppProperties();
+        appProperties.getMail().getPool().setEnabled(pooling);
+        SmtpTransportPool transportPool = new SmtpTransportPool(mailSender, appProperties, new SimpleMeterRegistry());
+        MailService mailService = new MailService(mailSender, null,
+                mock(MailOutboxRepository.class), mock(ApplicationEventPublisher.class), transportPool);
+        ReflectionTestUtils.setField(mailService, "from", "noreply@learnarabic.test");
+
+        List<MailService.OutgoingMail> mails = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            mails.add(new MailService.OutgoingMail(
+                    "learner" + i + "@learnarabic.test", "Nouveaux documents", "<p>Bonjour</p>", "Bonjour"));
+        }
+
+        long start = System.nanoTime();
+        for (int from = 0; from < MESSAGES; from += BATCH) {
+            Map<Integer, RuntimeException> failures = mailService.sendBatch(mails.subList(from, from + BATCH));
+            assertTrue(failures.isEmpty(), () -> "Échecs : " + failures);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        transportPool.close();
+        return MESSAGES / seconds;
+    }
+}
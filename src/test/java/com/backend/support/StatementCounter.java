@@ -0,0 +1,98 @@
+package com.backend.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compte les instructions SQL au niveau du DataSource : JDBC direct (JdbcTemplate) comme Hibernate.
+ * Seul le thread qui a appelé {@link #start()} est suivi : la reconstruction du catalogue
+ * ou l'envoi des mails en arrière-plan ne faussent pas les comptes.
+ * À importer dans le test : {@code @Import(StatementCounter.class)}.
+ */
+@TestConfiguration
+public class StatementCounter {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    /**
+     * Remet le compteur à zéro pour le thread courant.
+     */
+    public static void start() {
+        RECORDED.set(new ArrayList<>());
+    }
+
+    /**
+     * Instructions exécutées (ou préparées) par le thread courant depuis {@link #start()}.
+     */
+    public static List<String> statements() {
+        List<String> recorded = RECORDED.get();
+        return recorded == null ? List.of() : List.copyOf(recorded);
+    }
+
+    private static void record(String sql) {
+        List<String> recorded = RECORDED.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? wrap(DataSource.class, dataSource) : bean;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("unwrap") || name.equals("isWrapperFor")) {
+                return invoke(method, target, args);
+            }
+            // SQL connu dès la préparation (prepareStatement / prepareCall) : compté une fois
+            if (type == Connection.class && (name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                record((String) args[0]);
+            }
+            // Statement simple : le SQL arrive à l'exécution
+            if (type == Statement.class && args != null && args.length > 0 && args[0] instanceof String sql
+                    && (name.startsWith("execute") || name.equals("addBatch"))) {
+                record(sql);
+            }
+            Object result = invoke(method, target, args);
+            if (result instanceof Connection connection) {
+                return wrap(Connection.class, connection);
+            }
+            if (result instanceof Statement statement && !(result instanceof PreparedStatement)
+                    && !(result instanceof CallableStatement)) {
+                return wrap(Statement.class, statement);
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
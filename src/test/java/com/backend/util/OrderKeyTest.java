@@ -0,0 +1,82 @@
+package com.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderKeyTest {
+
+    @Test
+    void keyIsStrictlyBetweenItsNeighbours() {
+        String[][] cases = {{null, null}, {"a0", null}, {null, "a0"}, {"a0", "a1"}, {"Zz", "a0"}, {"a1z", "a2"},
+                {"az", null}, {null, "Z0"}, {"b00", "b00i"}};
+        for (String[] bounds : cases) {
+            String key = OrderKey.between(bounds[0], bounds[1]);
+            assertTrue(bounds[0] == null || bounds[0].compareTo(key) < 0, () -> key + " <= " + bounds[0]);
+            assertTrue(bounds[1] == null || key.compareTo(bounds[1]) < 0, () -> key + " >= " + bounds[1]);
+            assertTrue(OrderKey.isValid(key), key);
+        }
+    }
+
+    @Test
+    void legacyKeysStayOrdered() {
+        String[][] cases = {{null, "1"}, {"", "1"}, {"1z", "2"}, {"1", "10z"}, {"h", "i"}, {"zz", null}, {null, "0001"}};
+        for (String[] bounds : cases) {
+            String key = OrderKey.between(bounds[0], bounds[1]);
+            assertTrue(bounds[0] == null || bounds[0].compareTo(key) < 0, () -> key + " <= " + bounds[0]);
+            assertTrue(bounds[1] == null || key.compareTo(bounds[1]) < 0, () -> key + " >= " + bounds[1]);
+            assertFalse(key.endsWith("0"), key);
+        }
+    }
+
+    @Test
+    void randomInsertionsKeepTheListSorted() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int at = random.nextInt(keys.size() + 1);
+            String before = at == 0 ? null : keys.get(at - 1);
+            String after = at == keys.size() ? null : keys.get(at);
+            keys.add(at, OrderKey.between(before, after));
+        }
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void appendsAndPrependsGrowLogarithmically() {
+        String last = null;
+        String first = null;
+        for (int i = 0; i < 50_000; i++) {
+            String appended = OrderKey.between(last, null);
+            assertTrue(last == null || last.compareTo(appended) < 0);
+            last = appended;
+            String prepended = OrderKey.between(null, first);
+            assertTrue(first == null || prepended.compareTo(first) < 0);
+            first = prepended;
+        }
+        // 50 000 = "12kw" en base 36 : tête + 4 chiffres
+        assertTrue(last.length() <= 5, last);
+        assertTrue(first.length() <= 5, first);
+    }
+
+    @Test
+    void evenlySpacedKeysAreSortedShortAndLeaveRoom() {
+        List<String> keys = OrderKey.evenlySpaced(10_000);
+        assertEquals(10_000, keys.size());
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+            assertTrue(OrderKey.between(keys.get(i - 1), keys.get(i)).length() <= 4);
+        }
+    }
+
+    @Test
+    void rejectsInvertedBounds() {
+        assertThrows(IllegalArgumentException.class, () -> OrderKey.between("b", "a"));
+    }
+}